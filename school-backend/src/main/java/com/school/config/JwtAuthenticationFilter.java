@@ -0,0 +1,66 @@
+package com.school.config;
+
+import com.school.dto.AuthenticatedUser;
+import com.school.utils.JwtUtil;
+import com.school.utils.VerifiedTokenCache;
+import io.jsonwebtoken.JwtException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Resolves the principal from a {@code Bearer} token. A token is verified once;
+ * later requests with the same token are answered from {@link VerifiedTokenCache}
+ * without re-checking the HMAC or touching the database.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final JwtUtil jwtUtil;
+    private final VerifiedTokenCache cache;
+
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, VerifiedTokenCache cache) {
+        this.jwtUtil = jwtUtil;
+        this.cache = cache;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(BEARER)) {
+            AuthenticatedUser user = resolve(header.substring(BEARER.length()).trim());
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        user, null, List.of(new SimpleGrantedAuthority("ROLE_" + user.getRole())));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    private AuthenticatedUser resolve(String token) {
+        AuthenticatedUser user = cache.get(token);
+        if (user != null) {
+            return user;
+        }
+        try {
+            user = jwtUtil.parseToken(token);
+            cache.put(token, user);
+            return user;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null; // unauthenticated; protected endpoints answer 401
+        }
+    }
+}
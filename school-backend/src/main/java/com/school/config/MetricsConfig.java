@@ -0,0 +1,37 @@
+package com.school.config;
+
+import com.school.service.EndpointMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Wires the request metrics: the counting DataSource wrapper (on unless
+ * {@code metrics.sql.enabled=false}) and the timing filter.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(
+            @Value("${metrics.sql.enabled:true}") boolean enabled
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (enabled && bean instanceof DataSource dataSource && !(bean instanceof QueryCountingDataSource)) {
+                    return new QueryCountingDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public RequestMetricsFilter requestMetricsFilter(EndpointMetrics endpointMetrics) {
+        return new RequestMetricsFilter(endpointMetrics);
+    }
+}
@@ -0,0 +1,51 @@
+package com.school.config;
+
+import com.school.service.EndpointMetrics;
+import com.school.utils.QueryCounter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Times each request and counts its SQL on the request thread. Requests are
+ * grouped by method and mapped URL pattern, so {@code /users/7/progress} and
+ * {@code /users/8/progress} share one histogram and unmapped paths share another.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter implements Ordered {
+
+    private final EndpointMetrics endpointMetrics;
+
+    public RequestMetricsFilter(EndpointMetrics endpointMetrics) {
+        this.endpointMetrics = endpointMetrics;
+    }
+
+    /** Ahead of Spring Security, so rejected requests are measured too. */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR; // unless the chain returns normally
+        try (QueryCounter.Scope queries = QueryCounter.open()) {
+            try {
+                chain.doFilter(request, response);
+                status = response.getStatus();
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String endpoint = request.getMethod() + " " + (pattern == null ? "<unmapped>" : pattern);
+                endpointMetrics.record(endpoint, status, System.nanoTime() - start, queries);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.school.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} jobs on Spring Boot's {@code ThreadPoolTaskScheduler},
+ * sized by {@code spring.task.scheduling.pool.size}. The default is one thread,
+ * on which a long statistics flush or analytics rollup would hold back the
+ * 250 ms live-session broadcast.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
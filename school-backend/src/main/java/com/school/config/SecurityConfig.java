@@ -1,24 +1,46 @@
 package com.school.config;
 
+import com.school.utils.JwtUtil;
+import com.school.utils.VerifiedTokenCache;
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtUtil jwtUtil,
+                                                   @Value("${security.jwt.cache-size:10000}") int cacheSize) throws Exception {
 
         http
                 .csrf(csrf -> csrf.disable())
+                .cors(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(new JwtAuthenticationFilter(jwtUtil, new VerifiedTokenCache(cacheSize)),
+                        UsernamePasswordAuthenticationFilter.class)
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**","/admin/**","/quiz/**","/quiz/submit").permitAll()
-//                                .requestMatchers("/admin/**").hasRole("ADMIN")
+                        // SSE completions re-enter on an async dispatch the JWT filter does not see
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/admin/**").hasRole("ADMIN")
+                        .requestMatchers("/roster/**","/analytics/**","/questions/search").hasAnyRole("TEACHER","ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/live/sessions", "/live/*/next", "/live/*/end")
+                                .hasAnyRole("TEACHER","ADMIN")
+                        .requestMatchers("/live/**").authenticated()
+                        .requestMatchers("/quiz/submit","/quiz/sync","/quiz/adaptive","/leaderboard/me","/users/**").authenticated()
+                        .requestMatchers("/auth/**","/quiz/**","/leaderboard/**").permitAll()
                         .anyRequest().authenticated()
-//                                .anyRequest().permitAll()
                 );
         return http.build();
     }
@@ -26,4 +48,4 @@ public class SecurityConfig {
         public PasswordEncoder passwordEncoder() {
             return new BCryptPasswordEncoder();
         }
-    }
\ No newline at end of file
+    }
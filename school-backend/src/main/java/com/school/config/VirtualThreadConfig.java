@@ -0,0 +1,36 @@
+package com.school.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import javax.sql.DataSource;
+
+/**
+ * Settings for the {@code vthreads} profile (Java 21+). Request handling itself is
+ * switched to virtual threads by {@code spring.threads.virtual.enabled} in
+ * {@code application-vthreads.properties}; this bounds database access so the
+ * JDBC pool does not become the next bottleneck.
+ */
+@Configuration
+@Profile("vthreads")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Value("${db.access.max-concurrent:20}") int maxConcurrent,
+            @Value("${db.access.acquire-timeout-ms:2000}") long acquireTimeoutMs
+    ) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BoundedDataSource)) {
+                    return new BoundedDataSource(dataSource, maxConcurrent, acquireTimeoutMs);
+                }
+                return bean;
+            }
+        };
+    }
+}
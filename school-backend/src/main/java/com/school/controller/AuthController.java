@@ -1,22 +1,24 @@
 package com.school.controller;
 
 import com.school.dto.*;
-import com.school.entity.Question;
-import com.school.repository.QuestionRepository;
 import com.school.service.AuthService;
+import com.school.service.QuestionBankCache;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
+@Slf4j
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
 @CrossOrigin("*")
 public class AuthController {
-    private final QuestionRepository questionRepository;
+    private final QuestionBankCache questionBankCache;
     private final AuthService authService;
 
     @PostMapping("/register")
@@ -27,13 +29,22 @@ public class AuthController {
 
     @PostMapping("/login")
     public AuthResponse login(@RequestBody LoginRequest request) {
-        System.out.println("Login request: " + request);
+        log.debug("Login attempt for {}", request.getEmail());
         return authService.login(request);
     }
+    /**
+     * A random sample, so it is never cached; the cacheable full listing is
+     * {@code GET /questions/bank}. Served from the bank's pre-encoded fragments,
+     * which leave out answers and explanations.
+     */
     @GetMapping("/questions")
-    public List<Question> getQuestions(
-            @RequestParam String level,int limit) {
-        return questionRepository.findByLevel(level,limit);
+    public ResponseEntity<byte[]> getQuestions(
+            @RequestParam String level, int limit,
+            @RequestParam(defaultValue = "en") String language) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .body(questionBankCache.drawJson(level, language, limit));
     }
 
 }
@@ -0,0 +1,76 @@
+package com.school.controller;
+
+import com.school.service.CachedBody;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Serves {@link CachedBody} instances with conditional-GET support: a matching
+ * {@code If-None-Match} gets an empty 304, otherwise the gzipped bytes go out
+ * as they are when the client accepts gzip.
+ */
+final class CachedResponses {
+
+    // clients may keep the body but must revalidate, which costs one 304 until the bank changes
+    private static final CacheControl REVALIDATE = CacheControl.noCache();
+    // of the uncompressed JSON, so a device can verify what it stored offline
+    static final String CONTENT_SHA256 = "X-Content-Sha256";
+
+    private CachedResponses() {
+    }
+
+    static ResponseEntity<byte[]> of(CachedBody body, String ifNoneMatch, String acceptEncoding) {
+        if (matches(ifNoneMatch, body.getEtag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(body.getEtag())
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(body.getEtag())
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .header(CONTENT_SHA256, body.getSha256());
+        if (acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.getGzip());
+        }
+        return response.body(body.getJson());
+    }
+
+    /** Weak comparison, as RFC 9110 prescribes for If-None-Match. */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String opaque = opaque(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || opaque(tag).equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
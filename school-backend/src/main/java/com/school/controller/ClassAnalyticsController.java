@@ -0,0 +1,45 @@
+package com.school.controller;
+
+import com.school.dto.AuthenticatedUser;
+import com.school.dto.ClassStatsResponse;
+import com.school.service.ClassAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics/classes")
+@RequiredArgsConstructor
+@CrossOrigin
+public class ClassAnalyticsController {
+
+    private final ClassAnalyticsService classAnalyticsService;
+
+    @GetMapping
+    public List<ClassStatsResponse> summary(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String school,
+            @RequestParam(required = false) String grade,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return classAnalyticsService.summary(classAnalyticsService.school(user, school), grade, level, from, to);
+    }
+
+    @GetMapping("/daily")
+    public List<ClassStatsResponse> daily(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String school,
+            @RequestParam(required = false) String grade,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return classAnalyticsService.daily(classAnalyticsService.school(user, school), grade, level, from, to);
+    }
+}
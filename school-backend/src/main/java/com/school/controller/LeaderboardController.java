@@ -0,0 +1,37 @@
+package com.school.controller;
+
+import com.school.dto.AuthenticatedUser;
+import com.school.dto.LeaderboardEntry;
+import com.school.dto.LeaderboardResponse;
+import com.school.service.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/leaderboard")
+@RequiredArgsConstructor
+@CrossOrigin
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    public LeaderboardResponse leaderboard(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "global") String scope,
+            @RequestParam(defaultValue = "10") int top,
+            @RequestParam(required = false) String school,
+            @RequestParam(required = false) String grade
+    ) {
+        return leaderboardService.top(scope, school, grade, user == null ? null : user.getUserId(), top);
+    }
+
+    @GetMapping("/me")
+    public LeaderboardEntry me(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "global") String scope
+    ) {
+        return leaderboardService.me(user.getUserId(), scope);
+    }
+}
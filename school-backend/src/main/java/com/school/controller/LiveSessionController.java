@@ -0,0 +1,68 @@
+package com.school.controller;
+
+import com.school.dto.AuthenticatedUser;
+import com.school.dto.LiveAnswerRequest;
+import com.school.dto.LiveSessionResponse;
+import com.school.dto.LiveSessionSummary;
+import com.school.service.LiveSessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Teacher-led live quizzes. Events on {@code /live/{code}/events}: {@code lobby},
+ * {@code question}, {@code distribution} (coalesced answer counts), {@code ended}
+ * and a per-student {@code result}; question and distribution events carry the
+ * question index. EventSource cannot send an Authorization header, so clients read
+ * the stream with {@code fetch}.
+ */
+@RestController
+@RequestMapping("/live")
+@RequiredArgsConstructor
+public class LiveSessionController {
+
+    private final LiveSessionService liveSessionService;
+
+    @PostMapping("/sessions")
+    public LiveSessionResponse open(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam String level,
+            @RequestParam(defaultValue = "en") String language,
+            @RequestParam(defaultValue = "10") int questions
+    ) {
+        return liveSessionService.open(user.getUserId(), level, language, questions);
+    }
+
+    @GetMapping("/{code}")
+    public LiveSessionResponse session(@PathVariable String code) {
+        return liveSessionService.describe(code);
+    }
+
+    @GetMapping(value = "/{code}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable String code) {
+        return liveSessionService.join(code, user.getUserId());
+    }
+
+    @PostMapping("/{code}/answers")
+    public ResponseEntity<Void> answer(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @PathVariable String code,
+            @RequestBody LiveAnswerRequest request
+    ) {
+        liveSessionService.answer(code, user.getUserId(), request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/{code}/next")
+    public LiveSessionResponse next(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable String code) {
+        return liveSessionService.next(code, user.getUserId());
+    }
+
+    @PostMapping("/{code}/end")
+    public LiveSessionSummary end(@AuthenticationPrincipal AuthenticatedUser user, @PathVariable String code) {
+        return liveSessionService.end(code, user.getUserId());
+    }
+}
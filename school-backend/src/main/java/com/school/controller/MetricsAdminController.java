@@ -0,0 +1,21 @@
+package com.school.controller;
+
+import com.school.dto.EndpointMetricsResponse;
+import com.school.service.EndpointMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/metrics")
+@RequiredArgsConstructor
+public class MetricsAdminController {
+
+    private final EndpointMetrics endpointMetrics;
+
+    @GetMapping("/endpoints")
+    public List<EndpointMetricsResponse> endpoints() {
+        return endpointMetrics.report();
+    }
+}
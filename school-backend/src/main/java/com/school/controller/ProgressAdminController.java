@@ -0,0 +1,19 @@
+package com.school.controller;
+
+import com.school.service.UserProgressService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/progress")
+@RequiredArgsConstructor
+public class ProgressAdminController {
+
+    private final UserProgressService userProgressService;
+
+    @PostMapping("/backfill")
+    public String backfill() {
+        int users = userProgressService.backfill();
+        return "Rebuilt progress for " + users + " users";
+    }
+}
@@ -1,8 +1,16 @@
 package com.school.controller;
 
+import com.school.dto.QuestionImportReport;
 import com.school.service.QuestionImportService;
+import com.school.service.QuestionImportService.NearDuplicates;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/admin/questions")
@@ -12,8 +20,33 @@ public class QuestionAdminController {
     private final QuestionImportService questionImportService;
 
     @PostMapping("/import")
-    public String importQuestions() throws Exception {
-        questionImportService.importQuestions();
-        return "Questions imported successfully";
+    public QuestionImportReport importQuestions(
+            @RequestParam(defaultValue = "report") String duplicates
+    ) throws Exception {
+        return questionImportService.importQuestions(mode(duplicates));
+    }
+
+    @PostMapping("/import/upload")
+    public QuestionImportReport importUploaded(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(defaultValue = "report") String duplicates
+    ) {
+        return questionImportService.importFiles(files, mode(duplicates));
+    }
+
+    @PostMapping("/import/directory")
+    public QuestionImportReport importDirectory(
+            @RequestParam String path,
+            @RequestParam(defaultValue = "report") String duplicates
+    ) {
+        return questionImportService.importDirectory(path, mode(duplicates));
+    }
+
+    private static NearDuplicates mode(String duplicates) {
+        try {
+            return NearDuplicates.valueOf(duplicates.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "duplicates must be report, skip or merge");
+        }
     }
 }
@@ -1,8 +1,11 @@
-
 package com.school.controller;
 
-import com.school.repository.QuestionRepository;
+import com.school.dto.QuestionSearchResponse;
+import com.school.service.QuestionBankCache;
+import com.school.service.QuestionSearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -10,10 +13,36 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class QuestionController {
 
-    private final QuestionRepository questionRepository;
+    private final QuestionBankCache questionBankCache;
+    private final QuestionSearchService questionSearchService;
 
     @GetMapping("/count")
-    public long getQuestionCount() {
-        return questionRepository.count();
+    public ResponseEntity<byte[]> getQuestionCount(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return CachedResponses.of(questionBankCache.countBody(), ifNoneMatch, acceptEncoding);
+    }
+
+    /** Every question of a level, without answers; revalidates to a 304 until the next import. */
+    @GetMapping("/bank")
+    public ResponseEntity<byte[]> getQuestionBank(
+            @RequestParam String level,
+            @RequestParam(defaultValue = "en") String language,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return CachedResponses.of(questionBankCache.poolBody(level, language), ifNoneMatch, acceptEncoding);
+    }
+
+    /** Keyword search in question text, options and explanations, best matches first. */
+    @GetMapping("/search")
+    public QuestionSearchResponse search(
+            @RequestParam String q,
+            @RequestParam(required = false) String lang,
+            @RequestParam(required = false) String level,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        return questionSearchService.search(q, lang, level, limit);
     }
 }
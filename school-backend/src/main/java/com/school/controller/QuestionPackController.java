@@ -0,0 +1,46 @@
+package com.school.controller;
+
+import com.school.dto.QuestionPackInfo;
+import com.school.service.QuestionPackService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/packs")
+@RequiredArgsConstructor
+public class QuestionPackController {
+
+    private final QuestionPackService questionPackService;
+
+    /** Every pack with its current version, size and checksum; devices poll this to decide what to fetch. */
+    @GetMapping
+    public List<QuestionPackInfo> manifest() {
+        return questionPackService.manifest();
+    }
+
+    @GetMapping("/{level}/{language}")
+    public ResponseEntity<byte[]> pack(
+            @PathVariable String level,
+            @PathVariable String language,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return CachedResponses.of(questionPackService.pack(level, language, 0), ifNoneMatch, acceptEncoding);
+    }
+
+    /** Only the questions written after {@code since}; the response's {@code version} is the next {@code since}. */
+    @GetMapping("/{level}/{language}/delta")
+    public ResponseEntity<byte[]> delta(
+            @PathVariable String level,
+            @PathVariable String language,
+            @RequestParam long since,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return CachedResponses.of(questionPackService.pack(level, language, since), ifNoneMatch, acceptEncoding);
+    }
+}
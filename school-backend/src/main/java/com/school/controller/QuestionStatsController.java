@@ -0,0 +1,26 @@
+package com.school.controller;
+
+import com.school.dto.QuestionStatsResponse;
+import com.school.service.QuestionStatsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/analytics/questions")
+@RequiredArgsConstructor
+@CrossOrigin
+public class QuestionStatsController {
+
+    private final QuestionStatsService questionStatsService;
+
+    @GetMapping
+    public List<QuestionStatsResponse> questionStats(
+            @RequestParam(required = false) String level,
+            @RequestParam(defaultValue = "1") long minAnswered,
+            @RequestParam(defaultValue = "false") boolean flaggedOnly
+    ) {
+        return questionStatsService.report(level, minAnswered, flaggedOnly);
+    }
+}
@@ -0,0 +1,19 @@
+package com.school.controller;
+
+import com.school.dto.WriteBehindStats;
+import com.school.service.QuizAttemptWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/admin/attempts")
+@RequiredArgsConstructor
+public class QuizAttemptAdminController {
+
+    private final QuizAttemptWriter quizAttemptWriter;
+
+    @GetMapping("/write-behind")
+    public WriteBehindStats writeBehindStats() {
+        return quizAttemptWriter.stats();
+    }
+}
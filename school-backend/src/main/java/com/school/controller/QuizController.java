@@ -1,10 +1,16 @@
 package com.school.controller;
-import com.school.dto.QuizQuestionResponse;
+import com.school.dto.AuthenticatedUser;
+import com.school.dto.OfflineAttemptRequest;
+import com.school.dto.OfflineSyncResponse;
 import com.school.dto.QuizResultResponse;
 import com.school.dto.QuizSubmitRequest;
 
 import com.school.service.QuizService;
+import com.school.service.QuizService.QuizDraw;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -12,39 +18,71 @@ import java.util.List;
 @RestController
 @RequestMapping("/quiz")
 @RequiredArgsConstructor
-@CrossOrigin
+@CrossOrigin(exposedHeaders = QuizController.TICKET_HEADER)
 public class QuizController {
 
+    static final String TICKET_HEADER = "X-Quiz-Ticket";
+
     private final QuizService quizService;
 
     @GetMapping("/start")
-    public List<QuizQuestionResponse> startQuiz(
+    public ResponseEntity<byte[]> startQuiz(
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam String level,
             @RequestParam(defaultValue = "en") String language,
             @RequestParam(defaultValue = "10") int limit
     ) throws Exception {
 
-        return quizService.getQuizQuestions(level, language, limit);
+        return quiz(quizService.drawQuiz(userId(user), level, language, limit));
     }
 
     @PostMapping("/submit")
     public QuizResultResponse submitQuiz(
-            @RequestHeader("X-USER-ID") Long userId,
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestBody QuizSubmitRequest request
 
     ) {
-//        System.out.println("USER ID = " + userId);
-//        System.out.println("REQUEST = " + request);
-        return quizService.submitQuiz(userId, request);
+        return quizService.submitQuiz(userId(user), request);
+    }
+    /** Uploads attempts taken offline; safe to retry, each attempt is stored once per clientKey. */
+    @PostMapping("/sync")
+    public OfflineSyncResponse syncOffline(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestBody List<OfflineAttemptRequest> attempts
+    ) {
+
+        return quizService.syncOffline(user.getUserId(), attempts);
     }
+
     @GetMapping("/questions")
-    public List<QuizQuestionResponse> getQuizQuestions(
+    public ResponseEntity<byte[]> getQuizQuestions(
+            @AuthenticationPrincipal AuthenticatedUser user,
             @RequestParam String level,
             @RequestParam String language,
             @RequestParam int limit
     ) throws Exception {
-//        System.out.println("Quiz API HIT");
 
-        return quizService.getQuizQuestions(level, language, limit);
+        return quiz(quizService.drawQuiz(userId(user), level, language, limit));
+    }
+
+    @GetMapping("/adaptive")
+    public ResponseEntity<byte[]> getAdaptiveQuestions(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(defaultValue = "en") String language,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+
+        return quiz(quizService.drawAdaptive(user.getUserId(), language, limit));
+    }
+
+    private static ResponseEntity<byte[]> quiz(QuizDraw draw) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(TICKET_HEADER, draw.ticket())
+                .body(draw.json());
+    }
+
+    private static Long userId(AuthenticatedUser user) {
+        return user == null ? null : user.getUserId();
     }
 }
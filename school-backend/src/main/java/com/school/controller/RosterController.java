@@ -0,0 +1,42 @@
+package com.school.controller;
+
+import com.school.dto.RegisterRequest;
+import com.school.dto.RosterImportReport;
+import com.school.service.RosterService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+@RestController
+@RequestMapping("/roster")
+@RequiredArgsConstructor
+@CrossOrigin
+public class RosterController {
+
+    private final RosterService rosterService;
+
+    @PostMapping(value = "/students", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public RosterImportReport registerJson(
+            @RequestBody List<RegisterRequest> students,
+            @RequestParam(required = false) String schoolName,
+            @RequestParam(required = false) String grade
+    ) {
+        return rosterService.register(students, schoolName, grade);
+    }
+
+    @PostMapping(value = "/students", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public RosterImportReport registerCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String schoolName,
+            @RequestParam(required = false) String grade
+    ) throws IOException {
+        try (InputStream is = file.getInputStream()) {
+            return rosterService.registerCsv(is, schoolName, grade);
+        }
+    }
+}
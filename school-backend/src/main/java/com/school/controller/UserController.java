@@ -0,0 +1,72 @@
+package com.school.controller;
+
+import com.school.dto.AttemptHistoryResponse;
+import com.school.dto.AuthenticatedUser;
+import com.school.dto.UserProgressResponse;
+import com.school.repository.StudentRepository;
+import com.school.service.AttemptHistoryService;
+import com.school.service.ClassAnalyticsService;
+import com.school.service.UserProgressService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/users")
+@RequiredArgsConstructor
+@CrossOrigin
+public class UserController {
+
+    private final UserProgressService userProgressService;
+    private final AttemptHistoryService attemptHistoryService;
+    private final ClassAnalyticsService classAnalyticsService;
+    private final StudentRepository studentRepository;
+
+    @GetMapping("/{id}/progress")
+    public UserProgressResponse getProgress(@PathVariable Long id,
+                                            @AuthenticationPrincipal AuthenticatedUser user) {
+        checkAccess(id, user);
+        return userProgressService.getProgress(id);
+    }
+
+    @GetMapping("/{id}/attempts")
+    public AttemptHistoryResponse getAttempts(
+            @PathVariable Long id,
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + AttemptHistoryService.DEFAULT_PAGE_SIZE) int size
+    ) {
+        checkAccess(id, user);
+        return attemptHistoryService.history(id, level, from, to, cursor, size);
+    }
+
+    /**
+     * Students see their own records, teachers those of students at their own
+     * school (the school {@link ClassAnalyticsService#school} allows them), and
+     * admins anyone's.
+     */
+    private void checkAccess(Long id, AuthenticatedUser user) {
+        if (id.equals(user.getUserId()) || "ADMIN".equals(user.getRole())) {
+            return;
+        }
+        if ("TEACHER".equals(user.getRole())) {
+            String own = classAnalyticsService.school(user, null);
+            boolean sameSchool = studentRepository.findProfileByUserId(id)
+                    .map(StudentRepository.Profile::getSchoolName)
+                    .filter(own::equalsIgnoreCase)
+                    .isPresent();
+            if (sameSchool) {
+                return;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view user " + id);
+    }
+}
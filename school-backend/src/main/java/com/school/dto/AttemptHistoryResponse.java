@@ -0,0 +1,15 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class AttemptHistoryResponse {
+
+    private Long userId;
+    private List<QuizAttemptResponse> attempts; // newest first
+    private String nextCursor; // pass back as ?cursor= for the next page; null on the last page
+}
@@ -0,0 +1,16 @@
+package com.school.dto;
+
+import lombok.Value;
+
+/**
+ * The principal resolved from a verified JWT; available to controllers through
+ * {@code @AuthenticationPrincipal}.
+ */
+@Value
+public class AuthenticatedUser {
+
+    Long userId;
+    String email;
+    String role;
+    long expiresAt; // epoch millis
+}
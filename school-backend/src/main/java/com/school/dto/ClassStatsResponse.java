@@ -0,0 +1,21 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class ClassStatsResponse {
+
+    private LocalDate day; // null when summed over the whole range
+    private String schoolName;
+    private String grade;
+    private String level;
+    private long attempts;
+    private Double averageScore;  // percent
+    private Double scoreStdDev;   // population standard deviation of the score
+    private Double passRate;      // share of attempts at or above the pass score
+    private Double accuracy;      // correct answers over questions answered
+}
@@ -0,0 +1,23 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class EndpointMetricsResponse {
+
+    private String endpoint; // "GET /quiz/questions"
+    private long requests;
+    private long serverErrors;
+    private double meanMillis;
+    private double p50Millis;
+    private double p90Millis;
+    private double p99Millis;
+    private double maxMillis;
+    private double statementsPerRequest;
+    private int maxStatements;
+    private double rowsPerRequest;
+    private long repeatedStatementRequests; // requests flagged by the N+1 detector
+    private String lastRepeatedStatement; // shape of the statement behind the latest N+1 warning
+}
@@ -0,0 +1,14 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardEntry {
+
+    private long rank;
+    private Long userId;
+    private String name;
+    private int points;
+}
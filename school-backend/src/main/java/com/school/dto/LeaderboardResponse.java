@@ -0,0 +1,15 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class LeaderboardResponse {
+
+    private String scope;
+    private long totalPlayers;
+    private List<LeaderboardEntry> entries;
+}
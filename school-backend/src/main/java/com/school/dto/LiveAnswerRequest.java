@@ -0,0 +1,10 @@
+package com.school.dto;
+
+import lombok.Data;
+
+@Data
+public class LiveAnswerRequest {
+
+    private Long questionId; // must be the question currently shown
+    private Integer selectedOption;
+}
@@ -0,0 +1,17 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class LiveSessionResponse {
+
+    private String code; // what students type to join
+    private String level;
+    private String language;
+    private String state; // LOBBY, QUESTION, ENDED
+    private int questionIndex; // -1 in the lobby
+    private int questions;
+    private int participants;
+}
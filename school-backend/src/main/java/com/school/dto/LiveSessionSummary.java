@@ -0,0 +1,17 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class LiveSessionSummary {
+
+    private String code;
+    private int questions;
+    private int participants;
+    private double averageScore;
+    private Map<Long, QuizResultResponse> results; // by user id; students who answered nothing are left out
+}
@@ -1,9 +1,11 @@
 package com.school.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class LoginRequest {
     private String email;
+    @ToString.Exclude
     private String password;
 }
@@ -0,0 +1,15 @@
+package com.school.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class OfflineAttemptRequest {
+
+    private String clientKey; // generated on the device, e.g. a UUID; resending it is a no-op
+    private String ticket;    // X-Quiz-Ticket of the quiz, drawn while online; fixes its questions and level
+    private LocalDateTime attemptedAt; // device time; later than the upload counts as now
+    private List<AnswerDTO> answers;
+}
@@ -0,0 +1,32 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class OfflineSyncResponse {
+
+    private int received;
+    private int created;
+    private int duplicates;
+    private int rejected;
+    private List<Item> results = new ArrayList<>(); // one per uploaded attempt, in upload order
+
+    public enum Status {
+        CREATED,   // graded and stored now
+        DUPLICATE, // stored by an earlier upload; nothing changed
+        REJECTED   // not stored; see message, do not retry unchanged
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class Item {
+        private String clientKey;
+        private Status status;
+        private QuizResultResponse result; // CREATED only
+        private String message;            // REJECTED only
+    }
+}
@@ -0,0 +1,30 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class QuestionImportReport {
+
+    private int files;
+    private int read;
+    private int written;   // inserted, or existing row whose answer/explanation changed
+    private int unchanged; // already in the bank with identical content
+    private int rejected;
+    private int nearDuplicates; // similar to a question in the bank or earlier in the import
+    private int skipped;        // near-duplicates left out (duplicates=skip)
+    private int merged;         // near-duplicates that filled gaps in the kept question (duplicates=merge)
+    private List<String> errors = new ArrayList<>();
+    private List<NearDuplicate> duplicates = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class NearDuplicate {
+        private String question;  // <file>[<index>] of the imported question
+        private String matches;   // "question <id>" in the bank, or <file>[<index>] earlier in the import
+        private double similarity; // estimated Jaccard similarity of text and option shingles
+    }
+}
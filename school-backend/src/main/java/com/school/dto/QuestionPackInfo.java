@@ -0,0 +1,17 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class QuestionPackInfo {
+
+    private String level;
+    private String language;
+    private long version;
+    private int questions;
+    private int bytes;     // uncompressed JSON
+    private int gzipBytes; // what a device actually downloads
+    private String sha256; // of the uncompressed JSON
+}
@@ -0,0 +1,25 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class QuestionSearchResponse {
+
+    private String query;
+    private String language;
+    private int total;        // questions matching at least one term
+    private long tookMicros;  // index lookup and ranking only
+    private List<Hit> hits;   // best first
+
+    @Data
+    @AllArgsConstructor
+    public static class Hit {
+        private float score;
+        private int matchedTerms;
+        private QuizQuestionDTO question;
+    }
+}
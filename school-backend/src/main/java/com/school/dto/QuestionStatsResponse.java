@@ -0,0 +1,21 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class QuestionStatsResponse {
+
+    private Long questionId;
+    private String level;
+    private long served;
+    private long answered;
+    private long correct;
+    private Double proportionCorrect; // classical p-value; null until answered
+    private Double discrimination; // corrected point-biserial; null without enough spread
+    private List<Long> optionCounts; // chosen option 0..4, then anything else
+    private List<String> flags;      // TOO_HARD, TOO_EASY, CHECK_KEY
+}
@@ -0,0 +1,18 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class QuizAttemptResponse {
+
+    private Long id;
+    private String level;
+    private Integer totalQuestions;
+    private Integer correctAnswers;
+    private Integer score;
+    private LocalDateTime attemptedAt;
+}
@@ -4,16 +4,13 @@ import lombok.*;
 
 import java.util.List;
 
-@Getter
-@Setter
-@AllArgsConstructor
-@NoArgsConstructor
+@Value
 @Builder
 public class QuizQuestionDTO {
 
-    private Long id;
-    private String question;
-    private List<String> options;
-    private String level;
-    private String image;
+    Long id;
+    String question;
+    List<String> options;
+    String level;
+    String image;
 }
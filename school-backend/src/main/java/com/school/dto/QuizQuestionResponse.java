@@ -1,14 +1,12 @@
 package  com.school.dto;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Value;
 
 import java.util.List;
 
-@Data
-@AllArgsConstructor
+@Value
 public class QuizQuestionResponse {
 
-    private Long id;
-    private String question;
-    private List<String> options;
+    Long id;
+    String question;
+    List<String> options;
 }
@@ -7,6 +7,7 @@ import java.util.List;
 @Data
 public class QuizSubmitRequest {
 
-    private String level;
+    private String level; // informational; the ticket's level is recorded
     private List<AnswerDTO> answers;
+    private String ticket; // from the X-Quiz-Ticket header of /quiz/questions
 }
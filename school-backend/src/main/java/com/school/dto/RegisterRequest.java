@@ -1,10 +1,12 @@
 package com.school.dto;
 
 import lombok.Data;
+import lombok.ToString;
 
 @Data
 public class RegisterRequest {
     private String email;
+    @ToString.Exclude
     private String password;
     private String role; // STUDENT or TEACHER
 
@@ -0,0 +1,24 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RosterImportReport {
+
+    private int received;
+    private int registered;
+    private int rejected;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    public static class RowError {
+        private int row; // 1-based position in the uploaded roster, header excluded
+        private String email;
+        private String message;
+    }
+}
@@ -0,0 +1,21 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+public class UserProgressResponse {
+
+    private Long userId;
+    private int attempts;
+    private double averageScore;
+    private int bestScore;
+    private int currentStreak;
+    private int longestStreak;
+    private LocalDate lastAttemptDate;
+    private Map<String, Integer> attemptsByLevel;
+}
@@ -0,0 +1,22 @@
+package com.school.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class WriteBehindStats {
+
+    private boolean enabled;
+    private int queueDepth;
+    private int queueCapacity;
+    private long enqueued;
+    private long writtenDirectly; // disabled mode, queue full, after shutdown began, or live-session batches
+    private long flushed;
+    private long batches;
+    private long retries; // flush tries after a failure
+    private int retrying; // rows of a failed batch waiting for their next try
+    private long failed; // rows given up because the database still failed at shutdown
+    private double lastFlushMillis;
+    private double maxFlushMillis;
+}
@@ -0,0 +1,24 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * The highest {@code quiz_attempts.id} a rollup has already counted. It is
+ * advanced in the same transaction as the rollup rows, so every attempt is
+ * counted exactly once.
+ */
+@Entity
+@Table(name = "analytics_watermarks")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsWatermark {
+
+    @Id
+    private String name;
+
+    private long lastId;
+}
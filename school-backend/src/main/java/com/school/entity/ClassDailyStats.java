@@ -0,0 +1,46 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Quiz results of one school, grade and level on one day, added to by
+ * {@code ClassAnalyticsService} as new attempts come in. Unknown schools, grades
+ * and levels are stored as empty strings so the unique index can merge them.
+ * Mean and spread are derived from the sums, so rows can be added up over any
+ * date range.
+ */
+@Entity
+@Table(
+        name = "class_daily_stats",
+        indexes = @Index(name = "uq_class_daily_stats", columnList = "school_name, grade, level, day", unique = true)
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClassDailyStats {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private LocalDate day;
+    @Column(nullable = false)
+    private String schoolName;
+    @Column(nullable = false)
+    private String grade;
+    @Column(nullable = false)
+    private String level;
+
+    private long attempts;
+    private long scoreSum;
+    private long scoreSquareSum;
+    private long passCount;
+    private long correctSum;
+    private long questionSum;
+}
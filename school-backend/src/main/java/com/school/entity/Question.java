@@ -42,4 +42,12 @@ public class Question {
 
     private String relatedImage;
 
+    // SHA-256 of level, question text and options; lets re-imports upsert instead of duplicating
+    @Column(name = "content_hash", length = 64, unique = true)
+    private String contentHash;
+
+    // bank version of the import that last wrote this row; offline packs send rows newer than the device's version
+    @Column(name = "bank_version", columnDefinition = "bigint not null default 0")
+    private long bankVersion;
+
 }
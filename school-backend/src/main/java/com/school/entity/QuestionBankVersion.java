@@ -0,0 +1,31 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row counter bumped by {@code QuestionImportService} whenever an import
+ * changes the bank. HTTP validators for question-bank reads are derived from it,
+ * so every instance hands out the same ETag for the same bank. An import labels
+ * its rows with {@code nextVersion} while it runs and publishes it as
+ * {@code version} when done, so a version handed to clients never covers rows
+ * that are still being written.
+ */
+@Entity
+@Table(name = "question_bank_version")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuestionBankVersion {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    private long version;
+
+    @Column(name = "next_version", columnDefinition = "bigint not null default 0")
+    private long nextVersion;
+}
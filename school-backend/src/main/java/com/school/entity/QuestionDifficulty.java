@@ -0,0 +1,21 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "question_difficulty")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionDifficulty {
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    private double rating; // logit scale, same as StudentAbility
+    private int answers;
+}
@@ -0,0 +1,45 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running answer counts for one question, merged in by {@code QuestionStatsService}.
+ * The rest-score sums feed the point-biserial discrimination index: "rest" is the
+ * percentage of the other questions in the same quiz the student got right.
+ */
+@Entity
+@Table(name = "question_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QuestionStats {
+
+    @Id
+    @Column(name = "question_id")
+    private Long questionId;
+
+    private long served;
+    private long answered;
+    private long correct;
+
+    @Column(name = "option_0")
+    private long option0;
+    @Column(name = "option_1")
+    private long option1;
+    @Column(name = "option_2")
+    private long option2;
+    @Column(name = "option_3")
+    private long option3;
+    @Column(name = "option_4")
+    private long option4;
+    private long optionOther;
+
+    private long restCorrectCount;
+    private long restCorrectSum;
+    private long restIncorrectCount;
+    private long restIncorrectSum;
+    private long restSquareSum;
+}
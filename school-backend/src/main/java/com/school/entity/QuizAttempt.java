@@ -5,7 +5,14 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "quiz_attempts")
+@Table(
+        name = "quiz_attempts",
+        indexes = {
+                @Index(name = "idx_quiz_attempts_user_time", columnList = "user_id, attempted_at DESC, id DESC"),
+                // an offline attempt uploaded twice is stored once; online attempts have no key
+                @Index(name = "uq_quiz_attempts_user_client_key", columnList = "user_id, client_key", unique = true)
+        }
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -25,4 +32,7 @@ public class QuizAttempt {
     private Integer score;
 
     private LocalDateTime attemptedAt;
+
+    @Column(name = "client_key", length = 64)
+    private String clientKey; // idempotency key of an offline attempt
 }
@@ -0,0 +1,25 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "seen_questions")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SeenQuestions {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false)
+    private byte[] bitmap; // CompactBitmap.toBytes()
+
+    private LocalDateTime updatedAt;
+}
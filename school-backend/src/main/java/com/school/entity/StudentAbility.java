@@ -0,0 +1,21 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "student_ability")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentAbility {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private double rating; // logit scale, 0 = average
+    private int answers;
+}
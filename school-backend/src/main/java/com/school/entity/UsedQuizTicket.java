@@ -0,0 +1,32 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A quiz ticket that has been submitted, kept until the ticket would have
+ * expired anyway so it cannot be graded twice.
+ */
+@Entity
+@Table(
+        name = "used_quiz_tickets",
+        indexes = @Index(name = "idx_used_quiz_tickets_expires", columnList = "expires_at")
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UsedQuizTicket {
+
+    @Id
+    @Column(name = "ticket_id", length = 32)
+    private String ticketId;
+
+    private Long userId;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
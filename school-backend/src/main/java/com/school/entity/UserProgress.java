@@ -0,0 +1,33 @@
+package com.school.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+@Entity
+@Table(name = "user_progress")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserProgress {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    private int attempts;
+    private long totalScore;
+    private int bestScore;
+
+    private int currentStreak;
+    private int longestStreak;
+    private LocalDate lastAttemptDate;
+
+    private int beginnerAttempts;
+    private int basicAttempts;
+    private int intermediateAttempts;
+    private int advancedAttempts;
+}
@@ -0,0 +1,7 @@
+package com.school.repository;
+
+import com.school.entity.QuestionBankVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface QuestionBankVersionRepository extends JpaRepository<QuestionBankVersion, Integer> {
+}
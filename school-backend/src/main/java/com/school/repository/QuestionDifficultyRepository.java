@@ -0,0 +1,7 @@
+package com.school.repository;
+
+import com.school.entity.QuestionDifficulty;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface QuestionDifficultyRepository extends JpaRepository<QuestionDifficulty, Long> {
+}
@@ -14,5 +14,5 @@ public interface QuestionRepository extends JpaRepository<Question, Long> {
     )
     List<Question> findByLevel(String level,int limit);
 
-    List<Question> findRandomByLevel(String level, int limit);
+    List<Question> findByContentHashIsNull();
 }
@@ -0,0 +1,11 @@
+package com.school.repository;
+
+import com.school.entity.QuestionStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface QuestionStatsRepository extends JpaRepository<QuestionStats, Long> {
+
+    List<QuestionStats> findByAnsweredGreaterThanEqualOrderByQuestionId(long answered);
+}
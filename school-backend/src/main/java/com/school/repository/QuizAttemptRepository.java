@@ -2,9 +2,17 @@ package com.school.repository;
 
 import com.school.entity.QuizAttempt;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface QuizAttemptRepository extends JpaRepository<QuizAttempt, Long> {
-    List<QuizAttempt> findByUserId(Long userId);
+
+    @Query("select a.userId as userId, sum(a.correctAnswers) as points from QuizAttempt a group by a.userId")
+    List<UserPoints> sumCorrectAnswersByUser();
+
+    interface UserPoints {
+        Long getUserId();
+        Long getPoints();
+    }
 }
@@ -0,0 +1,7 @@
+package com.school.repository;
+
+import com.school.entity.SeenQuestions;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SeenQuestionsRepository extends JpaRepository<SeenQuestions, Long> {
+}
@@ -0,0 +1,7 @@
+package com.school.repository;
+
+import com.school.entity.StudentAbility;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StudentAbilityRepository extends JpaRepository<StudentAbility, Long> {
+}
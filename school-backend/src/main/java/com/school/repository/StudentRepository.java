@@ -1,5 +1,25 @@
 package com.school.repository;
 import com.school.entity.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {}
+import java.util.List;
+import java.util.Optional;
+
+public interface StudentRepository extends JpaRepository<Student, Long> {
+    // reads the user_id column only, without loading each student's User
+    @Query("select s.user.id as userId, s.fullName as fullName, s.schoolName as schoolName, s.grade as grade " +
+            "from Student s where s.user is not null")
+    List<Profile> findAllProfiles();
+
+    @Query("select s.user.id as userId, s.fullName as fullName, s.schoolName as schoolName, s.grade as grade " +
+            "from Student s where s.user.id = :userId")
+    Optional<Profile> findProfileByUserId(Long userId);
+
+    interface Profile {
+        Long getUserId();
+        String getFullName();
+        String getSchoolName();
+        String getGrade();
+    }
+}
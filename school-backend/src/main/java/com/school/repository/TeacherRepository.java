@@ -1,4 +1,9 @@
 package com.school.repository;
 import com.school.entity.Teacher;
 import org.springframework.data.jpa.repository.JpaRepository;
-public interface TeacherRepository extends JpaRepository<Teacher, Long> {}
+
+import java.util.Optional;
+
+public interface TeacherRepository extends JpaRepository<Teacher, Long> {
+    Optional<Teacher> findByUserId(Long userId);
+}
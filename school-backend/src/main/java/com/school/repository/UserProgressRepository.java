@@ -0,0 +1,7 @@
+package com.school.repository;
+
+import com.school.entity.UserProgress;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface UserProgressRepository extends JpaRepository<UserProgress, Long> {
+}
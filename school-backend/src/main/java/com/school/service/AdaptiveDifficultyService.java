@@ -0,0 +1,330 @@
+package com.school.service;
+
+import com.school.entity.QuestionDifficulty;
+import com.school.repository.QuestionDifficultyRepository;
+import com.school.repository.StudentAbilityRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongFunction;
+
+/**
+ * Rasch-style (1PL IRT) estimates of student ability and question difficulty on
+ * a shared logit scale, updated Elo-fashion after every graded answer. Questions
+ * are indexed per language in skip lists ordered by difficulty, so an adaptive
+ * quiz is a nearest-neighbour walk around the student's target difficulty.
+ * Estimates live in memory; changed ones are checkpointed to the database on a
+ * fixed delay and on shutdown.
+ */
+@Slf4j
+@Service
+public class AdaptiveDifficultyService {
+
+    public static final String LEVEL = "adaptive";
+
+    /** Candidates considered per requested question, so repeat quizzes are not identical. */
+    static final int CANDIDATE_FACTOR = 3;
+    static final int CHECKPOINT_BATCH = 1000;
+
+    private static final double MAX_RATING = 6.0;
+    private static final Map<String, Double> LEVEL_PRIORS = Map.of(
+            "beginner", -1.5,
+            "basic", -0.5,
+            "intermediate", 0.5,
+            "advanced", 1.5
+    );
+
+    private static final String UPSERT_ABILITY_SQL =
+            "INSERT INTO student_ability (user_id, rating, answers) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (user_id) DO UPDATE SET rating = EXCLUDED.rating, answers = EXCLUDED.answers";
+    private static final String UPSERT_DIFFICULTY_SQL =
+            "INSERT INTO question_difficulty (question_id, rating, answers) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (question_id) DO UPDATE SET rating = EXCLUDED.rating, answers = EXCLUDED.answers";
+
+    private final QuestionBankCache questionBankCache;
+    private final StudentAbilityRepository studentAbilityRepository;
+    private final QuestionDifficultyRepository questionDifficultyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final double targetSuccess; // probability of a correct answer the selection aims for
+
+    private final Map<Long, Estimate> abilities = new ConcurrentHashMap<>();
+    private final Map<Long, Estimate> difficulties = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyAbilities = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyDifficulties = ConcurrentHashMap.newKeySet();
+
+    // updates move index entries under the read lock; a rebuild swaps the index under the write lock
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+    private volatile Index index = Index.EMPTY;
+
+    public AdaptiveDifficultyService(QuestionBankCache questionBankCache,
+                                     StudentAbilityRepository studentAbilityRepository,
+                                     QuestionDifficultyRepository questionDifficultyRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     @Value("${quiz.adaptive.target-success:0.6}") double targetSuccess) {
+        this.questionBankCache = questionBankCache;
+        this.studentAbilityRepository = studentAbilityRepository;
+        this.questionDifficultyRepository = questionDifficultyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.targetSuccess = targetSuccess;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (QuestionDifficulty d : questionDifficultyRepository.findAll()) {
+            difficulties.put(d.getQuestionId(), new Estimate(d.getRating(), d.getAnswers()));
+        }
+        index = Index.EMPTY; // rebuilt from the bank on the next selection
+        log.info("Loaded {} question difficulty estimates", difficulties.size());
+    }
+
+    /**
+     * Picks up to {@code limit} questions whose difficulty is closest to the
+     * level at which the student should succeed with {@code quiz.adaptive.target-success}.
+     */
+    public List<CachedQuestion> select(Long userId, String language, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        NavigableSet<Key> pool = index().pools.get(QuestionBankCache.language(language));
+        if (pool == null || pool.isEmpty()) {
+            return List.of();
+        }
+
+        Estimate student = ability(userId);
+        double rating;
+        synchronized (student) {
+            rating = student.rating;
+        }
+        double target = rating - Math.log(targetSuccess / (1 - targetSuccess));
+        Key probe = new Key(target, Long.MIN_VALUE);
+        Iterator<Key> up = pool.tailSet(probe, true).iterator();
+        Iterator<Key> down = pool.headSet(probe, false).descendingIterator();
+
+        // merge both directions by distance from the target
+        List<Long> candidates = new ArrayList<>(limit * CANDIDATE_FACTOR);
+        Key above = up.hasNext() ? up.next() : null;
+        Key below = down.hasNext() ? down.next() : null;
+        while (candidates.size() < limit * CANDIDATE_FACTOR && (above != null || below != null)) {
+            if (below == null || (above != null && above.rating - target <= target - below.rating)) {
+                candidates.add(above.questionId);
+                above = up.hasNext() ? up.next() : null;
+            } else {
+                candidates.add(below.questionId);
+                below = down.hasNext() ? down.next() : null;
+            }
+        }
+
+        List<CachedQuestion> picked = new ArrayList<>(limit);
+        for (int i : QuestionBankCache.sample(candidates.size(), limit)) {
+            CachedQuestion q = questionBankCache.get(candidates.get(i));
+            if (q != null) {
+                picked.add(q);
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Folds one graded answer into both estimates: the student moves towards the
+     * result and the question away from it, each by a step that shrinks as the
+     * estimate collects evidence.
+     */
+    public void record(Long userId, long questionId, boolean correct) {
+        Estimate student = ability(userId);
+        Estimate question = difficulty(questionId);
+
+        indexLock.readLock().lock();
+        try {
+            synchronized (student) {
+                synchronized (question) {
+                    double p = 1 / (1 + Math.exp(question.rating - student.rating));
+                    double surprise = (correct ? 1 : 0) - p;
+                    double before = question.rating;
+
+                    student.rating = clamp(student.rating + step(student.answers, 0.6, 0.1) * surprise);
+                    student.answers++;
+                    question.rating = clamp(question.rating - step(question.answers, 0.4, 0.02) * surprise);
+                    question.answers++;
+
+                    index.move(questionId, before, question.rating);
+                }
+            }
+        } finally {
+            indexLock.readLock().unlock();
+        }
+
+        dirtyAbilities.add(userId);
+        dirtyDifficulties.add(questionId);
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.adaptive.checkpoint-interval-ms:30000}",
+            initialDelayString = "${quiz.adaptive.checkpoint-interval-ms:30000}")
+    public void checkpoint() {
+        int students = flush(dirtyAbilities, abilities, UPSERT_ABILITY_SQL);
+        int questions = flush(dirtyDifficulties, difficulties, UPSERT_DIFFICULTY_SQL);
+        if (students + questions > 0) {
+            log.debug("Checkpointed {} abilities and {} difficulties", students, questions);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    private int flush(Set<Long> dirty, Map<Long, Estimate> estimates, String sql) {
+        List<Long> ids = new ArrayList<>(dirty);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        dirty.removeAll(ids);
+
+        for (int from = 0; from < ids.size(); from += CHECKPOINT_BATCH) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHECKPOINT_BATCH, ids.size()));
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (Long id : chunk) {
+                Estimate e = estimates.get(id);
+                synchronized (e) {
+                    rows.add(new Object[]{id, e.rating, e.answers});
+                }
+            }
+            try {
+                jdbcTemplate.batchUpdate(sql, rows);
+            } catch (RuntimeException ex) {
+                // keep the rest for the next checkpoint rather than losing them
+                dirty.addAll(ids.subList(from, ids.size()));
+                log.warn("Checkpointing adaptive estimates failed, will retry", ex);
+                return from;
+            }
+        }
+        return ids.size();
+    }
+
+    private Estimate ability(Long userId) {
+        Estimate estimate = abilities.get(userId);
+        if (estimate != null) {
+            return estimate;
+        }
+        // loaded outside the map so a slow query does not block other students
+        Estimate loaded = studentAbilityRepository.findById(userId)
+                .map(a -> new Estimate(a.getRating(), a.getAnswers()))
+                .orElseGet(() -> new Estimate(0, 0));
+        Estimate raced = abilities.putIfAbsent(userId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private Estimate difficulty(long questionId) {
+        return difficulties.computeIfAbsent(questionId, id -> {
+            CachedQuestion q = questionBankCache.get(id);
+            return new Estimate(prior(q == null ? null : q.getLevel()), 0);
+        });
+    }
+
+    private Index index() {
+        Index current = index;
+        List<CachedQuestion> bank = questionBankCache.questions();
+        if (current.source == bank) {
+            return current;
+        }
+
+        indexLock.writeLock().lock();
+        try {
+            if (index.source != bank) {
+                index = Index.build(bank, this::difficulty);
+            }
+            return index;
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    static double prior(String level) {
+        return level == null ? 0 : LEVEL_PRIORS.getOrDefault(level.toLowerCase(Locale.ROOT), 0.0);
+    }
+
+    /** Learning rate: large while an estimate is new, settling at {@code floor}. */
+    static double step(int answers, double initial, double floor) {
+        return Math.max(floor, initial / (1 + answers / 20.0));
+    }
+
+    private static double clamp(double rating) {
+        return Math.max(-MAX_RATING, Math.min(MAX_RATING, rating));
+    }
+
+    private static final class Estimate {
+
+        double rating; // guarded by this
+        int answers;   // guarded by this
+
+        Estimate(double rating, int answers) {
+            this.rating = rating;
+            this.answers = answers;
+        }
+    }
+
+    private record Key(double rating, long questionId) {
+
+        static final Comparator<Key> ORDER = Comparator
+                .comparingDouble(Key::rating)
+                .thenComparingLong(Key::questionId);
+    }
+
+    private static final class Index {
+
+        static final Index EMPTY = new Index(null, Map.of());
+
+        final List<CachedQuestion> source;
+        final Map<String, NavigableSet<Key>> pools;
+
+        private Index(List<CachedQuestion> source, Map<String, NavigableSet<Key>> pools) {
+            this.source = source;
+            this.pools = pools;
+        }
+
+        static Index build(List<CachedQuestion> bank, LongFunction<Estimate> difficulty) {
+            NavigableSet<Key> en = new ConcurrentSkipListSet<>(Key.ORDER);
+            NavigableSet<Key> ta = new ConcurrentSkipListSet<>(Key.ORDER);
+            for (CachedQuestion q : bank) {
+                Estimate e = difficulty.apply(q.getId());
+                double rating;
+                synchronized (e) {
+                    rating = e.rating;
+                }
+                if (q.getEn().getResponse().getQuestion() != null) {
+                    en.add(new Key(rating, q.getId()));
+                }
+                if (q.getTa().getResponse().getQuestion() != null) {
+                    ta.add(new Key(rating, q.getId()));
+                }
+            }
+            return new Index(bank, Map.of("en", en, "ta", ta));
+        }
+
+        /** Re-keys a question in every pool that holds it; caller holds the question's monitor. */
+        void move(long questionId, double before, double after) {
+            for (NavigableSet<Key> pool : pools.values()) {
+                if (pool.remove(new Key(before, questionId))) {
+                    pool.add(new Key(after, questionId));
+                }
+            }
+        }
+    }
+}
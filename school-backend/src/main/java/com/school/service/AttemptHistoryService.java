@@ -0,0 +1,106 @@
+package com.school.service;
+
+import com.school.dto.AttemptHistoryResponse;
+import com.school.dto.QuizAttemptResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * A student's quiz history, newest first, paged by seeking past the last row
+ * seen rather than by OFFSET. Every page is an index range scan on
+ * {@code idx_quiz_attempts_user_time (user_id, attempted_at DESC, id DESC)}, so
+ * page 500 costs the same as page 1.
+ */
+@Service
+@RequiredArgsConstructor
+public class AttemptHistoryService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @param from   first day to include, or null
+     * @param to     last day to include, or null
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    public AttemptHistoryResponse history(Long userId, String level, LocalDate from, LocalDate to,
+                                          String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, level, total_questions, correct_answers, score, attempted_at FROM quiz_attempts " +
+                        "WHERE user_id = ? AND attempted_at IS NOT NULL");
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+
+        if (level != null && !level.isBlank()) {
+            sql.append(" AND level = ?");
+            args.add(level);
+        }
+        if (from != null) {
+            sql.append(" AND attempted_at >= ?");
+            args.add(Timestamp.valueOf(from.atStartOfDay()));
+        }
+        if (to != null) {
+            sql.append(" AND attempted_at < ?");
+            args.add(Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor after = Cursor.decode(cursor);
+            // row-value comparison, so Postgres can seek straight into the index
+            sql.append(" AND (attempted_at, id) < (?, ?)");
+            args.add(Timestamp.valueOf(after.attemptedAt()));
+            args.add(after.id());
+        }
+        sql.append(" ORDER BY attempted_at DESC, id DESC LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<QuizAttemptResponse> rows = jdbcTemplate.query(sql.toString(), (rs, n) -> new QuizAttemptResponse(
+                rs.getLong("id"),
+                rs.getString("level"),
+                (Integer) rs.getObject("total_questions"),
+                (Integer) rs.getObject("correct_answers"),
+                (Integer) rs.getObject("score"),
+                rs.getTimestamp("attempted_at").toLocalDateTime()
+        ), args.toArray());
+
+        String next = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            QuizAttemptResponse last = rows.get(pageSize - 1);
+            next = new Cursor(last.getAttemptedAt(), last.getId()).encode();
+        }
+        return new AttemptHistoryResponse(userId, rows, next);
+    }
+
+    record Cursor(LocalDateTime attemptedAt, long id) {
+
+        String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((attemptedAt + "|" + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int bar = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, bar)), Long.parseLong(raw.substring(bar + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
+}
@@ -76,8 +76,8 @@ public class AuthService {
             throw new RuntimeException("Invalid email or password");
         }
 
-        String token = jwtUtil.generateToken(user.getEmail(), user.getRole());
+        String token = jwtUtil.generateToken(user.getId(), user.getEmail(), user.getRole());
 
-        return new AuthResponse(token, user.getRole());
+        return new AuthResponse(token, user.getRole(), user.getId());
     }
 }
@@ -0,0 +1,52 @@
+package com.school.service;
+
+import lombok.Value;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body encoded once and kept in memory, both as is and gzipped,
+ * together with the entity tag it is served under and the SHA-256 of the
+ * uncompressed bytes, which clients can use to verify a stored copy.
+ */
+@Value
+public class CachedBody {
+
+    byte[] json;
+    byte[] gzip;
+    String etag;
+    String sha256; // hex
+
+    public static CachedBody of(byte[] json, String etag) {
+        return new CachedBody(json, gzip(json), etag, sha256(json));
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gz = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION); // paid once per bank version
+            }
+        }) {
+            gz.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
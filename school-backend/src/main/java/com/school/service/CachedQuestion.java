@@ -0,0 +1,35 @@
+package com.school.service;
+
+import com.school.dto.QuizQuestionDTO;
+import com.school.dto.QuizQuestionResponse;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * A question from the bank with its options decoded once and its quiz payload
+ * already serialized, one view per language.
+ */
+@Getter
+@AllArgsConstructor
+public final class CachedQuestion {
+
+    private final long id;
+    private final String level;
+    private final Integer correctAnswer;
+    private final Localized en;
+    private final Localized ta;
+    private final long bankVersion;
+
+    public Localized in(String language) {
+        return "ta".equals(QuestionBankCache.language(language)) ? ta : en;
+    }
+
+    @Value
+    public static class Localized {
+        QuizQuestionResponse response;
+        QuizQuestionDTO dto;
+        byte[] responseJson;
+        String explanation; // searched, never sent to students
+    }
+}
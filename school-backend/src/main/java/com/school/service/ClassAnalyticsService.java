@@ -0,0 +1,232 @@
+package com.school.service;
+
+import com.school.dto.AuthenticatedUser;
+import com.school.dto.ClassStatsResponse;
+import com.school.entity.Teacher;
+import com.school.repository.TeacherRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Class and school results for teachers, read only from {@code class_daily_stats}.
+ * A scheduled job adds new {@code quiz_attempts} to those rollups in id order,
+ * remembering the last id it counted in {@code analytics_watermarks}, so each
+ * run only reads the attempts written since the previous one and the dashboards
+ * never scan or join the attempt table.
+ * <p>
+ * Identity ids are handed out before their transactions commit, so a missing id
+ * may still appear. The job stops at such a gap until it has stayed open for
+ * {@code analytics.rollup.gap-grace-seconds}; ids lost to rollbacks and to
+ * duplicate offline uploads are skipped after that.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ClassAnalyticsService {
+
+    public static final int DEFAULT_DAYS = 30;
+    public static final int MAX_DAYS = 366;
+
+    private static final String WATERMARK = "class_daily_stats";
+
+    private static final String LOCK_WATERMARK_SQL =
+            "SELECT last_id FROM analytics_watermarks WHERE name = ? FOR UPDATE";
+    private static final String CREATE_WATERMARK_SQL =
+            "INSERT INTO analytics_watermarks (name, last_id) VALUES (?, 0) ON CONFLICT (name) DO NOTHING";
+    private static final String NEXT_IDS_SQL =
+            "SELECT id FROM quiz_attempts WHERE id > ? ORDER BY id LIMIT ?";
+    // attempts of users without a student record (teachers trying a quiz) advance the watermark but count nowhere
+    private static final String ROLLUP_SQL = """
+            INSERT INTO class_daily_stats (day, school_name, grade, level,
+                attempts, score_sum, score_square_sum, pass_count, correct_sum, question_sum)
+            SELECT CAST(a.attempted_at AS date), COALESCE(s.school_name, ''), COALESCE(s.grade, ''),
+                COALESCE(lower(a.level), ''),
+                count(*), COALESCE(sum(a.score), 0), COALESCE(sum(CAST(a.score AS bigint) * a.score), 0),
+                count(*) FILTER (WHERE a.score >= ?),
+                COALESCE(sum(a.correct_answers), 0), COALESCE(sum(a.total_questions), 0)
+            FROM quiz_attempts a
+            JOIN students s ON s.user_id = a.user_id
+            WHERE a.id > ? AND a.id <= ? AND a.attempted_at IS NOT NULL
+            GROUP BY 1, 2, 3, 4
+            ON CONFLICT (school_name, grade, level, day) DO UPDATE SET
+                attempts = class_daily_stats.attempts + EXCLUDED.attempts,
+                score_sum = class_daily_stats.score_sum + EXCLUDED.score_sum,
+                score_square_sum = class_daily_stats.score_square_sum + EXCLUDED.score_square_sum,
+                pass_count = class_daily_stats.pass_count + EXCLUDED.pass_count,
+                correct_sum = class_daily_stats.correct_sum + EXCLUDED.correct_sum,
+                question_sum = class_daily_stats.question_sum + EXCLUDED.question_sum
+            """;
+    private static final String ADVANCE_SQL = "UPDATE analytics_watermarks SET last_id = ? WHERE name = ?";
+
+    private final TeacherRepository teacherRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${analytics.rollup.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${analytics.rollup.gap-grace-seconds:60}")
+    private long gapGraceSeconds;
+
+    @Value("${analytics.pass-score:50}")
+    private int passScore;
+
+    // first id of each gap seen past the watermark -> when it was first seen; only touched by rollup()
+    private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+
+    /**
+     * Counts the attempts written since the last run, one batch per transaction,
+     * until it catches up or reaches a gap that is still young. Concurrent runs
+     * on other instances wait on the watermark row lock.
+     */
+    @Scheduled(fixedDelayString = "${analytics.rollup.interval-ms:15000}",
+            initialDelayString = "${analytics.rollup.interval-ms:15000}")
+    public synchronized void rollup() {
+        try {
+            jdbcTemplate.update(CREATE_WATERMARK_SQL, WATERMARK);
+            long counted = 0;
+            while (true) {
+                long[] batch = transactionTemplate.execute(status -> rollupBatch());
+                counted += batch[1];
+                if (batch[0] < batchSize || batch[1] < batch[0]) {
+                    break; // caught up, or stopped at a gap
+                }
+            }
+            if (counted > 0) {
+                log.debug("Rolled up {} quiz attempts", counted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Rolling up class statistics failed, will retry", e);
+        }
+    }
+
+    /** @return ids read past the watermark, and how many of them were counted */
+    private long[] rollupBatch() {
+        long watermark = jdbcTemplate.queryForObject(LOCK_WATERMARK_SQL, Long.class, WATERMARK);
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, watermark, batchSize);
+
+        long now = System.nanoTime();
+        long upTo = watermark;
+        int counted = 0;
+        for (long id : ids) {
+            if (id != upTo + 1 && !gapExpired(upTo + 1, now)) {
+                break;
+            }
+            upTo = id;
+            counted++;
+        }
+        gaps.headMap(upTo, true).clear();
+
+        if (upTo > watermark) {
+            jdbcTemplate.update(ROLLUP_SQL, passScore, watermark, upTo);
+            jdbcTemplate.update(ADVANCE_SQL, upTo, WATERMARK);
+        }
+        return new long[]{ids.size(), counted};
+    }
+
+    private boolean gapExpired(long firstMissing, long now) {
+        long since = gaps.computeIfAbsent(firstMissing, k -> now);
+        return now - since >= gapGraceSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * The school a teacher may look at: their own, which is also the default.
+     * Admins may name any school, or none for every school.
+     */
+    public String school(AuthenticatedUser user, String requested) {
+        String school = blankToNull(requested);
+        if (!"TEACHER".equals(user.getRole())) {
+            return school;
+        }
+        String own = teacherRepository.findByUserId(user.getUserId())
+                .map(Teacher::getSchoolName)
+                .map(ClassAnalyticsService::blankToNull)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.FORBIDDEN, "No school on record for this teacher"));
+        if (school != null && !school.equalsIgnoreCase(own)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Not allowed to view school " + school);
+        }
+        return own;
+    }
+
+    /** Totals per school, grade and level over the date range. */
+    public List<ClassStatsResponse> summary(String school, String grade, String level, LocalDate from, LocalDate to) {
+        return query(false, school, grade, level, from, to);
+    }
+
+    /** The same totals per day, for trend charts. */
+    public List<ClassStatsResponse> daily(String school, String grade, String level, LocalDate from, LocalDate to) {
+        return query(true, school, grade, level, from, to);
+    }
+
+    private List<ClassStatsResponse> query(boolean byDay, String school, String grade, String level,
+                                           LocalDate from, LocalDate to) {
+        LocalDate last = to != null ? to : LocalDate.now();
+        LocalDate first = from != null ? from : last.minusDays(DEFAULT_DAYS - 1);
+        if (first.isAfter(last)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(first, last) >= MAX_DAYS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At most " + MAX_DAYS + " days per request");
+        }
+
+        String groups = (byDay ? "day, " : "") + "school_name, grade, level";
+        StringBuilder sql = new StringBuilder("SELECT ").append(groups).append(
+                ", sum(attempts) AS attempts, sum(score_sum) AS score_sum, sum(score_square_sum) AS score_square_sum, " +
+                        "sum(pass_count) AS pass_count, sum(correct_sum) AS correct_sum, sum(question_sum) AS question_sum " +
+                        "FROM class_daily_stats WHERE day >= ? AND day <= ?");
+        List<Object> args = new ArrayList<>();
+        args.add(first);
+        args.add(last);
+
+        if (school != null) {
+            sql.append(" AND lower(school_name) = lower(?)");
+            args.add(school);
+        }
+        if (blankToNull(grade) != null) {
+            sql.append(" AND grade = ?");
+            args.add(grade);
+        }
+        if (blankToNull(level) != null) {
+            sql.append(" AND level = ?");
+            args.add(level.toLowerCase(Locale.ROOT));
+        }
+        sql.append(" GROUP BY ").append(groups).append(" ORDER BY ").append(groups);
+
+        return jdbcTemplate.query(sql.toString(), (rs, n) -> {
+            long attempts = rs.getLong("attempts");
+            long questions = rs.getLong("question_sum");
+            double mean = attempts == 0 ? 0 : (double) rs.getLong("score_sum") / attempts;
+            double variance = attempts == 0 ? 0 : (double) rs.getLong("score_square_sum") / attempts - mean * mean;
+            return new ClassStatsResponse(
+                    byDay ? rs.getDate("day").toLocalDate() : null,
+                    blankToNull(rs.getString("school_name")),
+                    blankToNull(rs.getString("grade")),
+                    blankToNull(rs.getString("level")),
+                    attempts,
+                    attempts == 0 ? null : mean,
+                    attempts == 0 ? null : Math.sqrt(Math.max(0, variance)),
+                    attempts == 0 ? null : (double) rs.getLong("pass_count") / attempts,
+                    questions == 0 ? null : (double) rs.getLong("correct_sum") / questions
+            );
+        }, args.toArray());
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+}
@@ -0,0 +1,91 @@
+package com.school.service;
+
+import com.school.dto.EndpointMetricsResponse;
+import com.school.utils.LatencyHistogram;
+import com.school.utils.QueryCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-endpoint latency histograms and SQL accounting, fed by
+ * {@code RequestMetricsFilter} once per request. A request that runs the same
+ * statement shape more than {@code metrics.n-plus-one.threshold} times is logged
+ * as a likely N+1.
+ */
+@Slf4j
+@Service
+public class EndpointMetrics {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final int repeatThreshold;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public EndpointMetrics(@Value("${metrics.n-plus-one.threshold:10}") int repeatThreshold) {
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    public void record(String endpoint, int status, long nanos, QueryCounter.Scope queries) {
+        Endpoint e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+        e.latency.record(nanos);
+        if (status >= 500) {
+            e.serverErrors.increment();
+        }
+        e.statements.add(queries.statements());
+        e.maxStatements.accumulate(queries.statements());
+        e.rows.add(queries.rows());
+
+        String repeated = queries.mostRepeated();
+        int repeats = queries.repeats(repeated);
+        if (repeats > repeatThreshold) {
+            e.repeatedStatementRequests.increment();
+            e.lastRepeatedStatement = repeated;
+            log.warn("Possible N+1 in {}: statement ran {} times ({} statements in total): {}",
+                    endpoint, repeats, queries.statements(), repeated);
+        }
+    }
+
+    public List<EndpointMetricsResponse> report() {
+        List<EndpointMetricsResponse> report = new ArrayList<>(endpoints.size());
+        endpoints.forEach((name, e) -> {
+            long requests = e.latency.count();
+            report.add(new EndpointMetricsResponse(
+                    name,
+                    requests,
+                    e.serverErrors.sum(),
+                    e.latency.mean() / NANOS_PER_MILLI,
+                    e.latency.percentile(0.50) / NANOS_PER_MILLI,
+                    e.latency.percentile(0.90) / NANOS_PER_MILLI,
+                    e.latency.percentile(0.99) / NANOS_PER_MILLI,
+                    e.latency.max() / NANOS_PER_MILLI,
+                    requests == 0 ? 0 : (double) e.statements.sum() / requests,
+                    (int) e.maxStatements.get(),
+                    requests == 0 ? 0 : (double) e.rows.sum() / requests,
+                    e.repeatedStatementRequests.sum(),
+                    e.lastRepeatedStatement
+            ));
+        });
+        report.sort(Comparator.comparing(EndpointMetricsResponse::getEndpoint));
+        return report;
+    }
+
+    private static final class Endpoint {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder serverErrors = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        final LongAdder rows = new LongAdder();
+        final LongAdder repeatedStatementRequests = new LongAdder();
+        volatile String lastRepeatedStatement;
+    }
+}
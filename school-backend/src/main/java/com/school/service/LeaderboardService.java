@@ -0,0 +1,237 @@
+package com.school.service;
+
+import com.school.dto.LeaderboardEntry;
+import com.school.dto.LeaderboardResponse;
+import com.school.repository.QuizAttemptRepository;
+import com.school.repository.StudentRepository;
+import com.school.utils.FenwickTree;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Live rankings by quiz points (total correct answers), kept in memory and
+ * updated by every graded submission. Each scope (global, one school, one grade)
+ * has a skip list for top-N reads and a Fenwick tree over point buckets for
+ * O(log n) rank lookups.
+ * <p>
+ * Submissions update the boards concurrently under the read side of one lock;
+ * a rebuild takes the write side, so no submission is applied to boards that
+ * are about to be replaced.
+ */
+@Service
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    public static final int MAX_TOP = 100;
+
+    private static final String GLOBAL = "global";
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final StudentRepository studentRepository;
+
+    private final Map<Long, Player> players = new ConcurrentHashMap<>();
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            players.clear();
+            boards.clear();
+
+            for (StudentRepository.Profile s : studentRepository.findAllProfiles()) {
+                players.put(s.getUserId(), Player.of(s));
+            }
+
+            for (QuizAttemptRepository.UserPoints row : quizAttemptRepository.sumCorrectAnswersByUser()) {
+                if (row.getUserId() != null && row.getPoints() != null) {
+                    // users without a student record (teachers trying a quiz) rank without a name
+                    Player player = players.computeIfAbsent(row.getUserId(), id -> new Player(null, null, null));
+                    add(player, row.getUserId(), (int) Math.min(row.getPoints(), Integer.MAX_VALUE));
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void record(Long userId, int points) {
+        lock.readLock().lock();
+        try {
+            Player player = players.get(userId);
+            if (player == null) {
+                // loaded outside the map, so the query does not block other users' updates
+                Player loaded = loadPlayer(userId);
+                player = players.putIfAbsent(userId, loaded);
+                if (player == null) {
+                    player = loaded;
+                }
+            }
+            add(player, userId, points);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Player player, long userId, int points) {
+        synchronized (player) {
+            int before = player.points;
+            player.points = before < 0 ? points : before + points;
+            for (String scope : player.scopes()) {
+                boards.computeIfAbsent(scope, k -> new Board()).move(userId, before, player.points);
+            }
+        }
+    }
+
+    public LeaderboardResponse top(String scope, String school, String grade, Long userId, int top) {
+        String key = scopeKey(scope, school, grade, userId);
+        Board board = boards.get(key);
+        if (board == null) {
+            return new LeaderboardResponse(key, 0, List.of());
+        }
+
+        int n = Math.max(1, Math.min(top, MAX_TOP));
+        List<LeaderboardEntry> entries = new ArrayList<>(n);
+        for (Standing s : board.ranking) {
+            if (entries.size() == n) {
+                break;
+            }
+            entries.add(entry(board, s.userId(), s.points()));
+        }
+        return new LeaderboardResponse(key, board.size(), entries);
+    }
+
+    public LeaderboardEntry me(Long userId, String scope) {
+        String key = scopeKey(scope, null, null, userId);
+        Player player = players.get(userId);
+        Board board = boards.get(key);
+        int points = player == null ? -1 : player.points();
+        if (points < 0 || board == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No quiz attempts for user " + userId);
+        }
+        return entry(board, userId, points);
+    }
+
+    private LeaderboardEntry entry(Board board, long userId, int points) {
+        Player player = players.get(userId);
+        return new LeaderboardEntry(board.rank(points), userId, player == null ? null : player.name, points);
+    }
+
+    private String scopeKey(String scope, String school, String grade, Long userId) {
+        String s = scope == null ? GLOBAL : scope.toLowerCase(Locale.ROOT);
+        Player player = userId == null ? null : players.get(userId);
+
+        switch (s) {
+            case GLOBAL:
+                return GLOBAL;
+            case "school":
+                String schoolName = school != null ? school : player == null ? null : player.school;
+                if (schoolName == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "School scope needs a school or a student user");
+                }
+                return Player.schoolScope(schoolName);
+            case "grade":
+                String gradeName = grade != null ? grade : player == null ? null : player.grade;
+                if (gradeName == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Grade scope needs a grade or a student user");
+                }
+                return Player.gradeScope(gradeName);
+            default:
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown leaderboard scope: " + scope);
+        }
+    }
+
+    private Player loadPlayer(Long userId) {
+        return studentRepository.findProfileByUserId(userId)
+                .map(Player::of)
+                .orElseGet(() -> new Player(null, null, null));
+    }
+
+    private record Standing(long userId, int points) {
+    }
+
+    private static final class Board {
+
+        private static final Comparator<Standing> BY_POINTS = Comparator
+                .comparingInt(Standing::points).reversed()
+                .thenComparingLong(Standing::userId);
+
+        final ConcurrentSkipListSet<Standing> ranking = new ConcurrentSkipListSet<>(BY_POINTS);
+        private final FenwickTree counts = new FenwickTree(1024);
+
+        synchronized void move(long userId, int before, int after) {
+            if (before >= 0) {
+                ranking.remove(new Standing(userId, before));
+                counts.add(before, -1);
+            }
+            ranking.add(new Standing(userId, after));
+            counts.add(after, 1);
+        }
+
+        /** Competition ranking: one more than the number of players with strictly more points. */
+        synchronized long rank(int points) {
+            return counts.countAbove(points) + 1;
+        }
+
+        synchronized long size() {
+            return counts.total();
+        }
+    }
+
+    private static final class Player {
+
+        final String name;
+        final String school;
+        final String grade;
+        int points = -1; // -1 until the first graded attempt; guarded by this
+
+        Player(String name, String school, String grade) {
+            this.name = name;
+            this.school = school;
+            this.grade = grade;
+        }
+
+        static Player of(StudentRepository.Profile s) {
+            return new Player(s.getFullName(), s.getSchoolName(), s.getGrade());
+        }
+
+        synchronized int points() {
+            return points;
+        }
+
+        List<String> scopes() {
+            List<String> scopes = new ArrayList<>(3);
+            scopes.add(GLOBAL);
+            if (school != null) {
+                scopes.add(schoolScope(school));
+            }
+            if (grade != null) {
+                scopes.add(gradeScope(grade));
+            }
+            return scopes;
+        }
+
+        static String schoolScope(String school) {
+            return "school:" + school.trim().toLowerCase(Locale.ROOT);
+        }
+
+        static String gradeScope(String grade) {
+            return "grade:" + grade.trim().toLowerCase(Locale.ROOT);
+        }
+    }
+}
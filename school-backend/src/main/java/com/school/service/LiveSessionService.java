@@ -0,0 +1,422 @@
+package com.school.service;
+
+import com.school.dto.AnswerDTO;
+import com.school.dto.LiveAnswerRequest;
+import com.school.dto.LiveSessionResponse;
+import com.school.dto.LiveSessionSummary;
+import com.school.dto.QuizResultResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+/**
+ * Teacher-led quizzes pushed to students over server-sent events. A teacher
+ * opens a session and gets a join code, students subscribe to its event stream,
+ * and the teacher steps through the questions. Answers only bump counters; the
+ * live distribution is rendered once per {@code live.broadcast-interval-ms} and
+ * fanned out in chunks on the application task executor (virtual threads under
+ * the {@code vthreads} profile), never on one thread per connection. A session
+ * waits for its previous broadcast to finish before the next, which keeps events
+ * in order and folds a slow fan-out into the next update. Grading and the batch
+ * of quiz attempts at the end go through {@link QuizService#submitSession}.
+ *
+ * <p>Sessions live in the memory of the instance that opened them.
+ */
+@Slf4j
+@Service
+public class LiveSessionService {
+
+    public static final int MAX_QUESTIONS = 50;
+
+    static final String CODE_ALPHABET = "ABCDEFGHJKLMNPQRSTUVWXYZ23456789"; // no 0/O or 1/I lookalikes
+    static final int CODE_LENGTH = 6;
+    static final int FAN_OUT_CHUNK = 256;
+
+    private static final int NO_ANSWER = -1;
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("ping").build();
+
+    private final QuestionBankCache questionBankCache;
+    private final QuizService quizService;
+    private final Executor fanOut;
+    private final long heartbeatNanos;
+    private final long timeoutMillis;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    public LiveSessionService(QuestionBankCache questionBankCache,
+                              QuizService quizService,
+                              @Qualifier("applicationTaskExecutor") Executor fanOut,
+                              @Value("${live.heartbeat-seconds:15}") long heartbeatSeconds,
+                              @Value("${live.session-timeout-minutes:120}") long timeoutMinutes) {
+        this.questionBankCache = questionBankCache;
+        this.quizService = quizService;
+        this.fanOut = fanOut;
+        this.heartbeatNanos = TimeUnit.SECONDS.toNanos(heartbeatSeconds);
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+    }
+
+    public LiveSessionResponse open(Long teacherId, String level, String language, int questionCount) {
+        int n = Math.max(1, Math.min(questionCount, MAX_QUESTIONS));
+        List<CachedQuestion> questions = questionBankCache.draw(level, language, n);
+        if (questions.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No questions for level " + level);
+        }
+
+        Session session;
+        do {
+            session = new Session(newCode(), teacherId, level, QuestionBankCache.language(language), questions,
+                    System.currentTimeMillis() + timeoutMillis);
+        } while (sessions.putIfAbsent(session.code, session) != null);
+
+        log.info("Live session {} opened by teacher {} ({} {} questions)", session.code, teacherId, n, level);
+        return session.describe();
+    }
+
+    public LiveSessionResponse describe(String code) {
+        return session(code).describe();
+    }
+
+    /**
+     * Subscribes a student to the session's events, joining it on first
+     * subscription. The current question (or the lobby) is sent right away so
+     * late joiners and reconnects catch up.
+     */
+    public SseEmitter join(String code, Long userId) {
+        Session session = session(code);
+        if (session.state == State.ENDED) {
+            throw new ResponseStatusException(HttpStatus.GONE, "Live session " + code + " has ended");
+        }
+
+        // the teacher watches the same stream without becoming a participant
+        Participant participant = userId.equals(session.teacherId) ? session.host : session.participant(userId);
+        SseEmitter emitter = new SseEmitter(Math.max(1, session.expiresAt - System.currentTimeMillis()));
+        participant.emitters.add(emitter);
+        emitter.onCompletion(() -> participant.emitters.remove(emitter));
+        emitter.onTimeout(() -> participant.emitters.remove(emitter));
+        emitter.onError(e -> participant.emitters.remove(emitter));
+        session.dirty = true;
+
+        Round round = session.round;
+        send(participant, emitter, round != null && session.state == State.QUESTION ? round.question : lobby(session));
+        return emitter;
+    }
+
+    /** Records a student's answer to the question on screen; each student answers each question once. */
+    public void answer(String code, Long userId, LiveAnswerRequest request) {
+        Session session = session(code);
+        Round round = session.round;
+        if (session.state != State.QUESTION || round == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No question is open in session " + code);
+        }
+        if (request.getQuestionId() == null || request.getQuestionId() != round.questionId) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "That question is no longer open");
+        }
+        Integer option = request.getSelectedOption();
+        if (option == null || option < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Answer needs a selectedOption");
+        }
+
+        if (userId.equals(session.teacherId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "The teacher running the session cannot answer");
+        }
+        Participant participant = session.participant(userId);
+        if (!participant.answers.compareAndSet(round.index, NO_ANSWER, option)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Question already answered");
+        }
+        round.counts.incrementAndGet(Math.min(option, round.counts.length() - 1)); // last slot: out of range
+        session.dirty = true;
+    }
+
+    /** Shows the next question to everyone in the session. */
+    public LiveSessionResponse next(String code, Long teacherId) {
+        Session session = owned(code, teacherId);
+        synchronized (session) {
+            if (session.state == State.ENDED) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Live session " + code + " has ended");
+            }
+            int index = session.round == null ? 0 : session.round.index + 1;
+            if (index >= session.questions.size()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "No questions left; end the session");
+            }
+
+            CachedQuestion q = session.questions.get(index);
+            String json = "{\"index\":" + index + ",\"total\":" + session.questions.size() + ",\"question\":"
+                    + new String(q.in(session.language).getResponseJson(), StandardCharsets.UTF_8) + "}";
+            int options = q.in(session.language).getResponse().getOptions().size();
+            session.round = new Round(index, q.getId(), new AtomicIntegerArray(options + 1),
+                    SseEmitter.event().name("question").data(json).build());
+            session.state = State.QUESTION;
+            broadcast(session, session.round.question);
+        }
+        return session.describe();
+    }
+
+    /** Ends the session: grades everyone, writes their attempts in one batch and tells each student their score. */
+    public LiveSessionSummary end(String code, Long teacherId) {
+        return end(owned(code, teacherId));
+    }
+
+    /**
+     * Pushes the answer distribution of sessions that changed since the last
+     * tick, a heartbeat to quiet ones, and ends sessions past their timeout.
+     */
+    @Scheduled(fixedDelayString = "${live.broadcast-interval-ms:250}")
+    public void tick() {
+        long now = System.nanoTime();
+        for (Session session : sessions.values()) {
+            if (System.currentTimeMillis() >= session.expiresAt && session.state != State.ENDED) {
+                try {
+                    end(session);
+                } catch (RuntimeException e) {
+                    log.warn("Ending expired live session {} failed", session.code, e);
+                }
+                continue;
+            }
+            if (!session.idle()) {
+                continue; // still fanning out the last update; this one folds into the next tick
+            }
+            if (session.dirty) {
+                session.dirty = false;
+                Round round = session.round;
+                broadcast(session, session.state == State.QUESTION && round != null
+                        ? distribution(session, round)
+                        : lobby(session));
+                session.lastSent = now;
+            } else if (now - session.lastSent > heartbeatNanos) {
+                broadcast(session, HEARTBEAT);
+                session.lastSent = now;
+            }
+        }
+    }
+
+    private LiveSessionSummary end(Session session) {
+        State before;
+        synchronized (session) {
+            before = session.state;
+            if (before == State.ENDED) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Live session " + session.code + " has ended");
+            }
+            session.state = State.ENDED;
+        }
+
+        Map<Long, List<AnswerDTO>> answers = new LinkedHashMap<>();
+        session.participants.forEach((userId, p) -> answers.put(userId, p.answerList(session.ids)));
+
+        Map<Long, QuizResultResponse> results;
+        try {
+            results = quizService.submitSession(session.level, session.ids, answers);
+        } catch (RuntimeException e) {
+            session.state = before; // let the teacher retry
+            throw e;
+        }
+        sessions.remove(session.code);
+
+        double average = results.values().stream().mapToInt(QuizResultResponse::getScore).average().orElse(0);
+        LiveSessionSummary summary = new LiveSessionSummary(
+                session.code, session.ids.length, session.participants.size(), average, results);
+
+        broadcast(session, SseEmitter.event().name("ended").data("{\"participants\":" + summary.getParticipants()
+                + ",\"averageScore\":" + average + "}").build());
+        session.then(() -> {
+            session.participants.forEach((userId, p) -> {
+                QuizResultResponse r = results.get(userId);
+                if (r != null) {
+                    Set<DataWithMediaType> event = SseEmitter.event().name("result").data("{\"totalQuestions\":"
+                            + r.getTotalQuestions() + ",\"correctAnswers\":" + r.getCorrectAnswers()
+                            + ",\"score\":" + r.getScore() + "}").build();
+                    p.emitters.forEach(emitter -> send(p, emitter, event));
+                }
+                p.emitters.forEach(SseEmitter::complete);
+            });
+            session.host.emitters.forEach(SseEmitter::complete);
+            return CompletableFuture.completedFuture(null);
+        });
+
+        log.info("Live session {} ended: {} participants, {} graded", session.code,
+                session.participants.size(), results.size());
+        return summary;
+    }
+
+    /** Sends one pre-rendered event to every subscriber, in chunks on the fan-out executor. */
+    private void broadcast(Session session, Set<DataWithMediaType> event) {
+        session.then(() -> {
+            List<Target> targets = new ArrayList<>();
+            session.participants.values().forEach(p -> p.emitters.forEach(e -> targets.add(new Target(p, e))));
+            session.host.emitters.forEach(e -> targets.add(new Target(session.host, e)));
+
+            List<CompletableFuture<Void>> chunks = new ArrayList<>();
+            for (int from = 0; from < targets.size(); from += FAN_OUT_CHUNK) {
+                List<Target> chunk = targets.subList(from, Math.min(from + FAN_OUT_CHUNK, targets.size()));
+                chunks.add(CompletableFuture.runAsync(() -> chunk.forEach(t -> send(t.participant, t.emitter, event)),
+                        fanOut));
+            }
+            return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]));
+        });
+    }
+
+    private static void send(Participant participant, SseEmitter emitter, Set<DataWithMediaType> event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            participant.emitters.remove(emitter); // disconnected; the container completes the request
+        }
+    }
+
+    private static Set<DataWithMediaType> lobby(Session session) {
+        return SseEmitter.event().name("lobby").data("{\"participants\":" + session.participants.size()
+                + ",\"questions\":" + session.ids.length + "}").build();
+    }
+
+    private static Set<DataWithMediaType> distribution(Session session, Round round) {
+        StringBuilder json = new StringBuilder(96)
+                .append("{\"index\":").append(round.index)
+                .append(",\"questionId\":").append(round.questionId)
+                .append(",\"participants\":").append(session.participants.size())
+                .append(",\"counts\":[");
+        int answered = 0;
+        for (int i = 0; i < round.counts.length(); i++) {
+            int count = round.counts.get(i);
+            answered += count;
+            json.append(i == 0 ? "" : ",").append(count);
+        }
+        json.append("],\"answered\":").append(answered).append('}');
+        return SseEmitter.event().name("distribution").data(json.toString()).build();
+    }
+
+    private Session session(String code) {
+        Session session = code == null ? null : sessions.get(code.toUpperCase(Locale.ROOT));
+        if (session == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No live session " + code);
+        }
+        return session;
+    }
+
+    private Session owned(String code, Long teacherId) {
+        Session session = session(code);
+        if (!session.teacherId.equals(teacherId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Live session " + code + " belongs to another teacher");
+        }
+        return session;
+    }
+
+    private String newCode() {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = CODE_ALPHABET.charAt(random.nextInt(CODE_ALPHABET.length()));
+        }
+        return new String(code);
+    }
+
+    private enum State { LOBBY, QUESTION, ENDED }
+
+    private record Round(int index, long questionId, AtomicIntegerArray counts, Set<DataWithMediaType> question) {
+    }
+
+    private record Target(Participant participant, SseEmitter emitter) {
+    }
+
+    private static final class Participant {
+
+        final AtomicIntegerArray answers;
+        final List<SseEmitter> emitters = new CopyOnWriteArrayList<>(); // one per open tab
+
+        Participant(int questions) {
+            answers = new AtomicIntegerArray(questions);
+            for (int i = 0; i < questions; i++) {
+                answers.set(i, NO_ANSWER);
+            }
+        }
+
+        List<AnswerDTO> answerList(long[] ids) {
+            List<AnswerDTO> list = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                int option = answers.get(i);
+                if (option != NO_ANSWER) {
+                    AnswerDTO answer = new AnswerDTO();
+                    answer.setQuestionId(ids[i]);
+                    answer.setSelectedOption(option);
+                    list.add(answer);
+                }
+            }
+            return list;
+        }
+    }
+
+    private static final class Session {
+
+        final String code;
+        final Long teacherId;
+        final String level;
+        final String language;
+        final List<CachedQuestion> questions;
+        final long[] ids;
+        final long expiresAt; // epoch millis
+        final Map<Long, Participant> participants = new ConcurrentHashMap<>();
+        final Participant host = new Participant(0); // the teacher's own subscriptions
+
+        volatile State state = State.LOBBY;
+        volatile Round round;
+        volatile boolean dirty;
+        volatile long lastSent = System.nanoTime();
+        private CompletableFuture<Void> broadcasts = CompletableFuture.completedFuture(null); // guarded by this
+
+        Session(String code, Long teacherId, String level, String language, List<CachedQuestion> questions,
+                long expiresAt) {
+            this.code = code;
+            this.teacherId = teacherId;
+            this.level = level;
+            this.language = language;
+            this.questions = List.copyOf(questions);
+            this.ids = questions.stream().mapToLong(CachedQuestion::getId).toArray();
+            this.expiresAt = expiresAt;
+        }
+
+        Participant participant(Long userId) {
+            return participants.computeIfAbsent(userId, id -> new Participant(ids.length));
+        }
+
+        /** Queues work behind the session's previous broadcast, so events reach each student in order. */
+        synchronized void then(Supplier<CompletableFuture<Void>> step) {
+            broadcasts = broadcasts
+                    .thenCompose(v -> step.get())
+                    .exceptionally(e -> {
+                        log.warn("Live session {} broadcast failed", code, e);
+                        return null;
+                    });
+        }
+
+        synchronized boolean idle() {
+            return broadcasts.isDone();
+        }
+
+        LiveSessionResponse describe() {
+            Round r = round;
+            return new LiveSessionResponse(code, level, language, state.name(), r == null ? -1 : r.index,
+                    ids.length, participants.size());
+        }
+    }
+}
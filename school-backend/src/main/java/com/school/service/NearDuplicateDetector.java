@@ -0,0 +1,225 @@
+package com.school.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds questions whose text and options nearly match a question already in the
+ * bank or earlier in the same import. Every question gets a MinHash signature
+ * per language over 5-character shingles of its normalized text and options.
+ * Signatures are cut into bands and hashed into buckets (locality-sensitive
+ * hashing), and only questions of the same level that share a bucket are
+ * compared. An import therefore costs roughly linear time instead of comparing
+ * every pair. One detector serves one import and is not thread-safe.
+ * <p>
+ * Signatures are not kept: a known question is only its label, its content
+ * hash and its place in the buckets it fell into, so the detector's heap grows
+ * by a few hundred bytes per question of the bank and the import. Similarity
+ * is estimated from the share of bands two questions have in common, which for
+ * Jaccard similarity s is s<sup>ROWS</sup>.
+ */
+final class NearDuplicateDetector {
+
+    static final int SHINGLE = 5; // code points
+    static final int BANDS = 16;
+    static final int ROWS = 4;    // a pair at similarity s shares a band with probability 1-(1-s^4)^16
+    static final int HASHES = BANDS * ROWS;
+
+    // a big cluster of near-identical questions should not make each lookup quadratic
+    private static final int MAX_BUCKET_SCAN = 200;
+
+    private final double threshold;
+    private final Map<Long, List<Entry>> buckets = new HashMap<>();
+    private final Set<String> hashes = new HashSet<>(); // content hashes of every known question
+
+    /**
+     * @param bank      questions already in the bank
+     * @param threshold share of signature positions two questions must agree on,
+     *                  an estimate of the Jaccard similarity of their shingle sets
+     */
+    NearDuplicateDetector(List<CachedQuestion> bank, double threshold) {
+        this.threshold = threshold;
+        for (CachedQuestion q : bank) {
+            List<String> optionsEn = q.getEn().getResponse().getOptions();
+            List<String> optionsTa = q.getTa().getResponse().getOptions();
+            String questionEn = q.getEn().getResponse().getQuestion();
+            String questionTa = q.getTa().getResponse().getQuestion();
+            // the hash the importer gave the row; options read back as empty lists hash like the nulls they were
+            String hash = QuestionImportService.contentHash(q.getLevel(), questionEn, questionTa, optionsEn, optionsTa);
+            long levelKey = levelKey(q.getLevel());
+            index(new Entry("question " + q.getId(), hash),
+                    bands(levelKey, 0, signature(questionEn, optionsEn)), bands(levelKey, 1, signature(questionTa, optionsTa)));
+        }
+    }
+
+    /** Band keys for an incoming question, to pass to {@link #find} and then {@link #add}. */
+    Candidate candidate(String label, String hash, String level, String questionEn, List<String> optionsEn,
+                        String questionTa, List<String> optionsTa) {
+        long levelKey = levelKey(level);
+        return new Candidate(new Entry(label, hash),
+                bands(levelKey, 0, signature(questionEn, optionsEn)), bands(levelKey, 1, signature(questionTa, optionsTa)));
+    }
+
+    /**
+     * The most similar known question at or above the threshold, or null. A
+     * candidate whose content hash is already known updates that row and is
+     * never a near-duplicate.
+     */
+    Match find(Candidate candidate) {
+        if (hashes.contains(candidate.entry().hash)) {
+            return null;
+        }
+        Entry best = null;
+        int bestShared = 0;
+
+        for (long[] bands : new long[][]{candidate.en(), candidate.ta()}) {
+            if (bands == null) {
+                continue;
+            }
+            Map<Entry, Integer> shared = new IdentityHashMap<>();
+            for (long band : bands) {
+                List<Entry> bucket = buckets.get(band);
+                if (bucket == null) {
+                    continue;
+                }
+                for (int i = 0; i < bucket.size() && i < MAX_BUCKET_SCAN; i++) {
+                    shared.merge(bucket.get(i), 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<Entry, Integer> e : shared.entrySet()) {
+                if (e.getValue() > bestShared) {
+                    best = e.getKey();
+                    bestShared = e.getValue();
+                }
+            }
+        }
+        double similarity = similarity(bestShared);
+        return best == null || similarity < threshold ? null : new Match(best.label, best.hash, similarity);
+    }
+
+    /** Remembers an imported question, so later ones in the same import are compared with it. */
+    void add(Candidate candidate) {
+        index(candidate.entry(), candidate.en(), candidate.ta());
+    }
+
+    private void index(Entry entry, long[] en, long[] ta) {
+        hashes.add(entry.hash);
+        for (long[] bands : new long[][]{en, ta}) {
+            if (bands == null) {
+                continue;
+            }
+            for (long band : bands) {
+                buckets.computeIfAbsent(band, k -> new ArrayList<>(1)).add(entry);
+            }
+        }
+    }
+
+    /** Estimated Jaccard similarity of two questions that share {@code shared} of their bands in one language. */
+    static double similarity(int shared) {
+        return Math.pow((double) shared / BANDS, 1.0 / ROWS);
+    }
+
+    /**
+     * MinHash of the shingles of the question and its options after the same
+     * normalization search uses, or null when there is no text. The k-th hash
+     * of a shingle is {@code h1 + k * h2}, which is as good as independent hash
+     * functions for MinHash and costs one multiply-add per position.
+     */
+    static int[] signature(String question, List<String> options) {
+        if (question == null) {
+            return null;
+        }
+        StringBuilder text = new StringBuilder();
+        QuestionSearchIndex.tokenize(question, term -> text.append(term).append(' '));
+        if (options != null) {
+            for (String option : options) {
+                QuestionSearchIndex.tokenize(option, term -> text.append(term).append(' '));
+            }
+        }
+        if (text.isEmpty()) {
+            return null;
+        }
+
+        int[] codePoints = text.codePoints().toArray();
+        int[] signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, codePoints.length - SHINGLE + 1);
+        for (int i = 0; i < shingles; i++) {
+            long h = 0;
+            for (int j = i; j < Math.min(codePoints.length, i + SHINGLE); j++) {
+                h = h * 1_000_003L + codePoints[j];
+            }
+            long h1 = mix(h);
+            long h2 = mix(h ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int k = 0; k < HASHES; k++) {
+                int value = (int) ((h1 + k * h2) >>> 33);
+                if (value < signature[k]) {
+                    signature[k] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /** The bucket key of every band of the signature, or null without one. */
+    private static long[] bands(long levelKey, int lang, int[] signature) {
+        if (signature == null) {
+            return null;
+        }
+        long[] bands = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = (levelKey * 31 + lang) * 31 + band;
+            for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+                key = key * 0x100000001B3L + signature[r];
+            }
+            bands[band] = mix(key);
+        }
+        return bands;
+    }
+
+    // questions are only compared within their level
+    private static long levelKey(String level) {
+        return (level == null ? "" : level.toLowerCase(Locale.ROOT)).hashCode();
+    }
+
+    /** The murmur3 64-bit finalizer. */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /** An incoming question: its label and hash, and its band keys per language (null without text). */
+    record Candidate(Entry entry, long[] en, long[] ta) {
+    }
+
+    /**
+     * @param matched     the question it resembles: {@code question <id>} for the bank,
+     *                    {@code <file>[<index>]} for an earlier question of this import
+     * @param matchedHash that question's content hash
+     */
+    record Match(String matched, String matchedHash, double similarity) {
+    }
+
+    /** A known question; compared by identity, as a question may share several buckets with another. */
+    private static final class Entry {
+
+        final String label;
+        final String hash;
+
+        Entry(String label, String hash) {
+            this.label = label;
+            this.hash = hash;
+        }
+    }
+}
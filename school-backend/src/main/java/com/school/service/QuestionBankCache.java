@@ -0,0 +1,429 @@
+package com.school.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.QuizQuestionDTO;
+import com.school.dto.QuizQuestionResponse;
+import com.school.entity.Question;
+import com.school.entity.QuestionBankVersion;
+import com.school.repository.QuestionBankVersionRepository;
+import com.school.repository.QuestionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory copy of the {@code questions} table, indexed by level and language.
+ * The bank only changes on import, so quiz draws are served from here instead of
+ * {@code ORDER BY RANDOM()} on every request. Each snapshot carries the bank
+ * version it was loaded at, and read endpoints serve bodies encoded once per version.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionBankCache {
+
+    /** Returned by {@link #correctAnswer} for ids that are not in the bank. */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    /** Returned by {@link #correctAnswer} for questions stored without a usable answer. */
+    public static final int NO_ANSWER = -1;
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    private final QuestionRepository questionRepository;
+    private final QuestionBankVersionRepository questionBankVersionRepository;
+    private final ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE) // before the startup listeners that index the bank
+    public void refresh() {
+        // read the version first: a concurrent import can then only make it look older than the rows
+        long version = questionBankVersionRepository.findById(QuestionBankVersion.ID)
+                .map(QuestionBankVersion::getVersion)
+                .orElse(0L);
+        load(questionRepository.findAll(), version);
+    }
+
+    /** Loads questions that did not come from the database, as the next local version. */
+    public void load(List<Question> questions) {
+        load(questions, snapshot.version + 1);
+    }
+
+    public void load(List<Question> questions, long version) {
+        List<CachedQuestion> cached = new ArrayList<>(questions.size());
+        for (Question q : questions) {
+            cached.add(decode(q));
+        }
+        snapshot = Snapshot.of(cached, version);
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    /** The bank version the current snapshot was loaded at. */
+    public long version() {
+        return snapshot.version;
+    }
+
+    /** The question count as a JSON number, tagged with the bank version. */
+    public CachedBody countBody() {
+        Snapshot current = snapshot;
+        return current.bodies.computeIfAbsent("count", k -> CachedBody.of(
+                Integer.toString(current.size).getBytes(StandardCharsets.US_ASCII), current.etag("count")));
+    }
+
+    /**
+     * Every question of the level that has text in the language, as the same JSON
+     * array {@link #toJson} builds, encoded and gzipped once per bank version.
+     */
+    public CachedBody poolBody(String level, String language) {
+        Snapshot current = snapshot;
+        String key = key(level, language);
+        CachedQuestion[] pool = current.pools.get(key);
+        if (pool == null) {
+            // unknown levels share one body instead of growing the map per query string
+            return current.bodies.computeIfAbsent("empty", k -> CachedBody.of(
+                    "[]".getBytes(StandardCharsets.US_ASCII), current.etag("empty")));
+        }
+        return current.bodies.computeIfAbsent(key, k ->
+                CachedBody.of(toJson(Arrays.asList(pool), language), current.etag(key)));
+    }
+
+    /** Every cached question ordered by id. A new list is returned after each reload. */
+    public List<CachedQuestion> questions() {
+        return snapshot.all;
+    }
+
+    /** The cached question with this id, or null if it is not in the bank. */
+    public CachedQuestion get(long questionId) {
+        Snapshot current = snapshot;
+        int i = Arrays.binarySearch(current.ids, questionId);
+        return i < 0 ? null : current.all.get(i);
+    }
+
+    /** Level and language of every non-empty pool, as {@code {level, language}} pairs. */
+    public List<String[]> poolKeys() {
+        List<String[]> keys = new ArrayList<>();
+        for (String key : snapshot.pools.keySet()) {
+            int colon = key.lastIndexOf(':');
+            keys.add(new String[]{key.substring(0, colon), key.substring(colon + 1)});
+        }
+        keys.sort(Comparator.<String[], String>comparing(k -> k[0]).thenComparing(k -> k[1]));
+        return keys;
+    }
+
+    /**
+     * An offline pack: the level's questions in the language, without answers,
+     * that changed after bank version {@code since} (0 for the whole pool):
+     * <pre>{"level":..,"language":..,"version":..,"since":..,"questions":[..]}</pre>
+     * A {@code since} the bank does not know, e.g. from before a database reset,
+     * gets the whole pool.
+     */
+    public CachedBody packBody(String level, String language, long since) {
+        Snapshot current = snapshot;
+        String key = key(level, language);
+        CachedQuestion[] pool = current.pools.get(key);
+        if (pool == null) {
+            return null;
+        }
+        long from = since < 0 || since > current.version ? 0 : since;
+        return current.bodies.computeIfAbsent("pack:" + key + ':' + from, k -> {
+            List<CachedQuestion> changed = new ArrayList<>();
+            for (CachedQuestion q : pool) {
+                if (q.getBankVersion() > from) {
+                    changed.add(q);
+                }
+            }
+            byte[] questions = toJson(changed, language);
+            byte[] head = ("{\"level\":" + quote(key.substring(0, key.lastIndexOf(':')))
+                    + ",\"language\":\"" + language(language) + "\",\"version\":" + current.version
+                    + ",\"since\":" + from + ",\"questions\":").getBytes(StandardCharsets.UTF_8);
+            byte[] json = Arrays.copyOf(head, head.length + questions.length + 1);
+            System.arraycopy(questions, 0, json, head.length, questions.length);
+            json[json.length - 1] = '}';
+            return CachedBody.of(json, current.etag("pack:" + key + ':' + from));
+        });
+    }
+
+    /**
+     * Draws up to {@code limit} distinct questions of the given level that have
+     * text in the requested language, in random order.
+     */
+    public List<CachedQuestion> draw(String level, String language, int limit) {
+        CachedQuestion[] pool = snapshot.pools.get(key(level, language));
+        if (pool == null || limit <= 0) {
+            return List.of();
+        }
+
+        int[] picked = sample(pool.length, limit);
+        List<CachedQuestion> result = new ArrayList<>(picked.length);
+        for (int i : picked) {
+            result.add(pool[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Draws like {@link #draw}, but takes questions rejected by {@code exclude}
+     * only when the pool has too few others left to fill the quiz.
+     */
+    public List<CachedQuestion> draw(String level, String language, int limit, LongPredicate exclude) {
+        CachedQuestion[] pool = snapshot.pools.get(key(level, language));
+        if (pool == null || limit <= 0) {
+            return List.of();
+        }
+
+        int n = pool.length;
+        int k = Math.min(limit, n);
+        List<CachedQuestion> result = new ArrayList<>(k);
+        List<CachedQuestion> excluded = null;
+        Map<Integer, Integer> swapped = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // partial Fisher–Yates that keeps going until enough questions pass the filter
+        for (int i = 0; i < n && result.size() < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int atJ = swapped.getOrDefault(j, j);
+            swapped.put(j, swapped.getOrDefault(i, i));
+
+            CachedQuestion q = pool[atJ];
+            if (!exclude.test(q.getId())) {
+                result.add(q);
+            } else {
+                if (excluded == null) {
+                    excluded = new ArrayList<>();
+                }
+                if (excluded.size() < k) {
+                    excluded.add(q);
+                }
+            }
+        }
+
+        for (int i = 0; result.size() < k && excluded != null && i < excluded.size(); i++) {
+            result.add(excluded.get(i));
+        }
+        return result;
+    }
+
+    /** Calls {@code action} with the id of every question in the level's pool for the language. */
+    public void forEachInPool(String level, String language, LongConsumer action) {
+        CachedQuestion[] pool = snapshot.pools.get(key(level, language));
+        if (pool != null) {
+            for (CachedQuestion q : pool) {
+                action.accept(q.getId());
+            }
+        }
+    }
+
+    /**
+     * Same draw as {@link #draw}, returned as a ready-to-send JSON array built by
+     * concatenating the pre-encoded question fragments.
+     */
+    public byte[] drawJson(String level, String language, int limit) {
+        return toJson(draw(level, language, limit), language);
+    }
+
+    /** Joins the pre-encoded fragments of already drawn questions into a JSON array. */
+    public byte[] toJson(List<CachedQuestion> questions, String language) {
+        int length = 2 + Math.max(questions.size() - 1, 0);
+        for (CachedQuestion q : questions) {
+            length += q.in(language).getResponseJson().length;
+        }
+
+        byte[] out = new byte[length];
+        int pos = 0;
+        out[pos++] = '[';
+        for (int i = 0; i < questions.size(); i++) {
+            if (i > 0) {
+                out[pos++] = ',';
+            }
+            byte[] fragment = questions.get(i).in(language).getResponseJson();
+            System.arraycopy(fragment, 0, out, pos, fragment.length);
+            pos += fragment.length;
+        }
+        out[pos] = ']';
+        return out;
+    }
+
+    /**
+     * Looks up the answer key by binary search over the sorted id array, without
+     * touching any {@link Question} object.
+     */
+    public int correctAnswer(long questionId) {
+        Snapshot current = snapshot;
+        int i = Arrays.binarySearch(current.ids, questionId);
+        return i < 0 ? UNKNOWN : current.answers[i];
+    }
+
+    private CachedQuestion decode(Question q) {
+        return new CachedQuestion(
+                q.getId(),
+                q.getLevel(),
+                q.getCorrectAnswer(),
+                localize(q, q.getQuestionEn(), q.getOptionsEn(), q.getExplanationEn()),
+                localize(q, q.getQuestionTa(), q.getOptionsTa(), q.getExplanationTa()),
+                q.getBankVersion()
+        );
+    }
+
+    private CachedQuestion.Localized localize(Question q, String text, String optionsJson, String explanation) {
+        try {
+            List<String> decoded = optionsJson == null
+                    ? null
+                    : objectMapper.readValue(optionsJson, STRING_LIST);
+            List<String> options = decoded == null
+                    ? List.of()
+                    : Collections.unmodifiableList(new ArrayList<>(decoded));
+
+            QuizQuestionResponse response = new QuizQuestionResponse(q.getId(), text, options);
+            QuizQuestionDTO dto = QuizQuestionDTO.builder()
+                    .id(q.getId())
+                    .question(text)
+                    .options(options)
+                    .level(q.getLevel())
+                    .image(q.getRelatedImage())
+                    .build();
+
+            return new CachedQuestion.Localized(response, dto, objectMapper.writeValueAsBytes(response), explanation);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to parse options for question " + q.getId(), e);
+        }
+    }
+
+    private String quote(String value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to encode " + value, e);
+        }
+    }
+
+    static String language(String language) {
+        return "ta".equalsIgnoreCase(language) ? "ta" : "en";
+    }
+
+    private static String key(String level, String language) {
+        return (level == null ? "" : level.toLowerCase(Locale.ROOT)) + ':' + language(language);
+    }
+
+    /**
+     * Partial Fisher–Yates over the virtual index array {@code 0..n-1}. Only the
+     * swapped slots are remembered, so a draw costs O(k) regardless of pool size.
+     */
+    static int[] sample(int n, int k) {
+        k = Math.min(k, n);
+        int[] out = new int[k];
+        Map<Integer, Integer> swapped = new HashMap<>(k * 2);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < k; i++) {
+            int j = i + random.nextInt(n - i);
+            int atJ = swapped.getOrDefault(j, j);
+            int atI = swapped.getOrDefault(i, i);
+            swapped.put(j, atI);
+            out[i] = atJ;
+        }
+        return out;
+    }
+
+    private static final class Snapshot {
+
+        static final Snapshot EMPTY = new Snapshot(Collections.emptyMap(), List.of(), new long[0], new byte[0], 0);
+
+        final Map<String, CachedQuestion[]> pools;
+        final List<CachedQuestion> all;
+        final long[] ids;
+        final byte[] answers;
+        final int size;
+        final long version;
+        final Map<String, CachedBody> bodies = new ConcurrentHashMap<>(); // encoded on first request
+
+        private Snapshot(Map<String, CachedQuestion[]> pools, List<CachedQuestion> all, long[] ids, byte[] answers,
+                         long version) {
+            this.pools = pools;
+            this.all = all;
+            this.ids = ids;
+            this.answers = answers;
+            this.size = ids.length;
+            this.version = version;
+        }
+
+        /** Weak: the same tag covers the plain and the gzipped representation. */
+        String etag(String resource) {
+            return "W/\"" + version + '-' + resource.replaceAll("[^A-Za-z0-9:._-]", "_") + '"';
+        }
+
+        static Snapshot of(List<CachedQuestion> questions, long version) {
+            Map<String, List<CachedQuestion>> grouped = new HashMap<>();
+            for (CachedQuestion q : questions) {
+                if (q.getEn().getResponse().getQuestion() != null) {
+                    grouped.computeIfAbsent(key(q.getLevel(), "en"), k -> new ArrayList<>()).add(q);
+                }
+                if (q.getTa().getResponse().getQuestion() != null) {
+                    grouped.computeIfAbsent(key(q.getLevel(), "ta"), k -> new ArrayList<>()).add(q);
+                }
+            }
+
+            Map<String, CachedQuestion[]> pools = new HashMap<>();
+            grouped.forEach((k, v) -> pools.put(k, v.toArray(new CachedQuestion[0])));
+
+            CachedQuestion[] byId = questions.toArray(new CachedQuestion[0]);
+            Arrays.sort(byId, Comparator.comparingLong(CachedQuestion::getId));
+            long[] ids = new long[byId.length];
+            byte[] answers = new byte[byId.length];
+            for (int i = 0; i < byId.length; i++) {
+                ids[i] = byId[i].getId();
+                answers[i] = answerKey(byId[i]);
+            }
+
+            return new Snapshot(Map.copyOf(pools), Collections.unmodifiableList(Arrays.asList(byId)), ids, answers,
+                    version);
+        }
+
+        /**
+         * The answer as stored in the byte table. An answer that is not the index
+         * of one of the question's options cannot be graded, and is kept as
+         * {@link #NO_ANSWER} rather than wrapped into another option.
+         */
+        static byte answerKey(CachedQuestion q) {
+            Integer answer = q.getCorrectAnswer();
+            if (answer == null) {
+                return NO_ANSWER;
+            }
+            if (answer < 0 || answer > Byte.MAX_VALUE
+                    || !isOption(answer, q.getEn()) || !isOption(answer, q.getTa())) {
+                log.warn("Question {} has correct answer {} outside its options, it is never graded correct",
+                        q.getId(), answer);
+                return NO_ANSWER;
+            }
+            return answer.byteValue();
+        }
+
+        private static boolean isOption(int answer, CachedQuestion.Localized localized) {
+            List<String> options = localized.getResponse().getOptions();
+            return options.isEmpty() || answer < options.size(); // empty: no options in this language
+        }
+    }
+}
@@ -1,59 +1,554 @@
 package com.school.service;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.QuestionImportReport;
 import com.school.dto.QuestionJsonDTO;
 import com.school.entity.Question;
 import com.school.repository.QuestionRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
+/**
+ * Streams question packs into the {@code questions} table. Packs are read one
+ * element at a time from the Jackson token stream and written in JDBC batches,
+ * upserting on {@code content_hash} so importing the same pack twice is a no-op.
+ * Each import labels the rows it writes with a new bank version; imports run one
+ * at a time, so versions are published in order. Questions that nearly match one
+ * already in the bank or earlier in the import are reported, and depending on
+ * the {@link NearDuplicates} mode imported anyway, skipped or merged.
+ */
 @Service
 @RequiredArgsConstructor
 public class QuestionImportService {
 
+    static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 100;
+    private static final int MAX_REPORTED_DUPLICATES = 1000;
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    // one statement per batch; RETURNING lists the rows actually inserted or changed, which
+    // batchUpdate cannot tell once the driver rewrites batched inserts (SUCCESS_NO_INFO)
+    private static final String UPSERT_SQL = """
+            INSERT INTO questions (question_en, question_ta, options_en, options_ta, correct_answer,
+                                   level, explanation_en, explanation_ta, related_image, content_hash, bank_version)
+            SELECT q.question_en, q.question_ta, q.options_en::jsonb, q.options_ta::jsonb, q.correct_answer,
+                   q.level, q.explanation_en, q.explanation_ta, q.related_image, q.content_hash, ?
+            FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::int[],
+                        ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+                AS q(question_en, question_ta, options_en, options_ta, correct_answer,
+                     level, explanation_en, explanation_ta, related_image, content_hash)
+            ON CONFLICT (content_hash) DO UPDATE SET
+                correct_answer = EXCLUDED.correct_answer,
+                explanation_en = EXCLUDED.explanation_en,
+                explanation_ta = EXCLUDED.explanation_ta,
+                related_image = EXCLUDED.related_image,
+                bank_version = EXCLUDED.bank_version
+            WHERE questions.correct_answer IS DISTINCT FROM EXCLUDED.correct_answer
+               OR questions.explanation_en IS DISTINCT FROM EXCLUDED.explanation_en
+               OR questions.explanation_ta IS DISTINCT FROM EXCLUDED.explanation_ta
+               OR questions.related_image IS DISTINCT FROM EXCLUDED.related_image
+            RETURNING content_hash
+            """;
+    // SQL element type of each column of a batch row, in UPSERT_SQL order
+    private static final String[] UPSERT_TYPES =
+            {"text", "text", "text", "text", "int4", "text", "text", "text", "text", "text"};
+
+    private static final String RESERVE_VERSION_SQL =
+            "INSERT INTO question_bank_version (id, version, next_version) VALUES (1, 0, 1) " +
+                    "ON CONFLICT (id) DO UPDATE SET next_version = " +
+                    "GREATEST(question_bank_version.next_version, question_bank_version.version) + 1 " +
+                    "RETURNING next_version";
+    private static final String PUBLISH_VERSION_SQL =
+            "UPDATE question_bank_version SET version = ? WHERE id = 1 AND version < ?";
+
+    // fills only what the kept question lacks; options imported without a value are stored as JSON null
+    // options are only filled in when both questions mark the same option, with the same text, as correct,
+    // so the kept correct_answer still points at the right option in the added list
+    private static final String MERGE_SQL = """
+            UPDATE questions q SET
+                question_en = COALESCE(q.question_en, m.question_en),
+                question_ta = COALESCE(q.question_ta, m.question_ta),
+                options_en = CASE WHEN m.aligned
+                    THEN COALESCE(NULLIF(q.options_en, 'null'::jsonb), m.options_en) ELSE q.options_en END,
+                options_ta = CASE WHEN m.aligned
+                    THEN COALESCE(NULLIF(q.options_ta, 'null'::jsonb), m.options_ta) ELSE q.options_ta END,
+                explanation_en = COALESCE(q.explanation_en, m.explanation_en),
+                explanation_ta = COALESCE(q.explanation_ta, m.explanation_ta),
+                related_image = COALESCE(q.related_image, m.related_image),
+                bank_version = m.bank_version
+            FROM (SELECT v.*, COALESCE(x.correct_answer = v.correct_answer
+                        AND (x.options_en ->> x.correct_answer = v.options_en ->> v.correct_answer
+                          OR x.options_ta ->> x.correct_answer = v.options_ta ->> v.correct_answer), false) AS aligned
+                  FROM (VALUES (?, ?, ?::jsonb, ?::jsonb, ?, ?, ?, ?::int, ?::bigint, ?))
+                      AS v(question_en, question_ta, options_en, options_ta, explanation_en, explanation_ta,
+                           related_image, correct_answer, bank_version, content_hash)
+                  JOIN questions x ON x.content_hash = v.content_hash) AS m
+            WHERE q.content_hash = m.content_hash
+              AND ((q.question_en IS NULL AND m.question_en IS NOT NULL)
+                OR (q.question_ta IS NULL AND m.question_ta IS NOT NULL)
+                OR (m.aligned AND NULLIF(q.options_en, 'null'::jsonb) IS NULL AND m.options_en IS NOT NULL)
+                OR (m.aligned AND NULLIF(q.options_ta, 'null'::jsonb) IS NULL AND m.options_ta IS NOT NULL)
+                OR (q.explanation_en IS NULL AND m.explanation_en IS NOT NULL)
+                OR (q.explanation_ta IS NULL AND m.explanation_ta IS NOT NULL)
+                OR (q.related_image IS NULL AND m.related_image IS NOT NULL))
+            """;
+
+    /** What to do with a question that nearly matches one the bank already has. */
+    public enum NearDuplicates {
+        REPORT, // import it anyway and list it in the report
+        SKIP,   // keep the existing question only
+        MERGE   // keep the existing question, filling in text or explanations it lacks, and options whose key agrees
+    }
+
     private final QuestionRepository questionRepository;
+    private final QuestionBankCache questionBankCache;
     private final ObjectMapper objectMapper; // ✅ IDENTIFIER PRESENT
+    private final JdbcTemplate jdbcTemplate;
+    private final QuestionPackService questionPackService;
+    private final QuestionSearchService questionSearchService;
 
-    public void importQuestions() {
+    // estimated Jaccard similarity of shingles at which questions count as near-duplicates; 0 turns detection off
+    @Value("${quiz.import.near-duplicate-threshold:0.8}")
+    private double nearDuplicateThreshold;
 
-        try {
-            InputStream is = getClass()
-                    .getClassLoader()
-                    .getResourceAsStream("questions.json");
+    // the only directory tree POST /admin/questions/import/directory may read; empty turns it off
+    @Value("${quiz.import.root:}")
+    private String importRoot;
+
+    public QuestionImportReport importQuestions() {
+        return importQuestions(NearDuplicates.REPORT);
+    }
+
+    public QuestionImportReport importQuestions(NearDuplicates mode) {
+
+        try (InputStream is = getClass()
+                .getClassLoader()
+                .getResourceAsStream("questions.json")) {
 
             if (is == null) {
                 throw new RuntimeException("questions.json not found in resources");
             }
 
-            List<QuestionJsonDTO> questions =
-                    objectMapper.readValue(is, new TypeReference<List<QuestionJsonDTO>>() {});
+            return importStream(is, "questions.json", mode);
 
-            for (QuestionJsonDTO dto : questions) {
-                if (dto.getQuestionEn() == null && dto.getQuestionTa() == null) {
-                    throw new RuntimeException("Question must have at least one language");
-                }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to import questions", e);
+        }
+    }
 
-                Question q = Question.builder()
-                        .questionEn(dto.getQuestionEn())
-                        .questionTa(dto.getQuestionTa())
-                        .optionsEn(objectMapper.writeValueAsString(dto.getOptionsEn()))
-                        .optionsTa(objectMapper.writeValueAsString(dto.getOptionsTa()))
-                        .correctAnswer(dto.getCorrectAnswer())
-                        .level(dto.getLevel())
-                        .explanationEn(dto.getExplanationEn())
-                        .explanationTa(dto.getExplanationTa())
-                        .relatedImage(dto.getRelatedImage())
-                        .build();
+    public QuestionImportReport importStream(InputStream is, String source) {
+        return importStream(is, source, NearDuplicates.REPORT);
+    }
 
-                questionRepository.save(q);
+    public synchronized QuestionImportReport importStream(InputStream is, String source, NearDuplicates mode) {
+
+        Run run = start(mode);
+
+        try {
+            importPack(is, source, run);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to import questions", e);
+        }
+
+        publish(run);
+        return run.report;
+    }
+
+    public synchronized QuestionImportReport importFiles(List<MultipartFile> files, NearDuplicates mode) {
+
+        Run run = start(mode);
+
+        for (MultipartFile file : files) {
+            try (InputStream is = file.getInputStream()) {
+                importPack(is, file.getOriginalFilename(), run);
+            } catch (IOException e) {
+                error(run.report, file.getOriginalFilename() + ": " + e.getMessage());
             }
+        }
+
+        publish(run);
+        return run.report;
+    }
+
+    /**
+     * Imports every {@code .json} file below {@code path}, which is resolved
+     * against {@code quiz.import.root} and may not leave it, through {@code ..}
+     * or symbolic links.
+     */
+    public synchronized QuestionImportReport importDirectory(String path, NearDuplicates mode) {
+
+        Path directory = resolveImportDirectory(path);
+        Run run = start(mode);
 
-        } catch (Exception e) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            List<Path> packs = paths
+                    .filter(p -> Files.isRegularFile(p, LinkOption.NOFOLLOW_LINKS))
+                    .filter(p -> p.toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+            for (Path pack : packs) {
+                String name = directory.relativize(pack).toString();
+                try (InputStream is = Files.newInputStream(pack, LinkOption.NOFOLLOW_LINKS)) {
+                    importPack(is, name, run);
+                } catch (IOException e) {
+                    error(run.report, name + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
             throw new RuntimeException("Failed to import questions", e);
         }
+
+        publish(run);
+        return run.report;
+    }
+
+    private Path resolveImportDirectory(String path) {
+        if (importRoot == null || importRoot.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Directory imports are disabled (quiz.import.root)");
+        }
+        try {
+            Path root = Path.of(importRoot).toRealPath();
+            Path requested = root.resolve(path == null ? "" : path).normalize();
+            if (!requested.startsWith(root) || !Files.isDirectory(requested)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a directory under the import root: " + path);
+            }
+            Path directory = requested.toRealPath();
+            if (!directory.startsWith(root)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a directory under the import root: " + path);
+            }
+            return directory;
+        } catch (IOException | InvalidPathException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a directory under the import root: " + path);
+        }
+    }
+
+    private Run start(NearDuplicates mode) {
+        backfillContentHashes();
+        long version = reserveVersion();
+        NearDuplicateDetector detector = nearDuplicateThreshold > 0
+                ? new NearDuplicateDetector(questionBankCache.questions(), nearDuplicateThreshold)
+                : null;
+        return new Run(new QuestionImportReport(), version, mode, detector);
+    }
+
+    /** The version this import's rows are labelled with; clients see it once {@link #publish} runs. */
+    private long reserveVersion() {
+        return jdbcTemplate.queryForObject(RESERVE_VERSION_SQL, Long.class);
+    }
+
+    /**
+     * Publishes the import's version when it wrote anything, so clients holding
+     * the old ETag or pack version get the changes, then reloads the in-memory
+     * copy and rebuilds the offline packs and the search index from it.
+     */
+    private void publish(Run run) {
+        if (run.report.getWritten() + run.report.getMerged() > 0) {
+            jdbcTemplate.update(PUBLISH_VERSION_SQL, run.version, run.version);
+        }
+        questionBankCache.refresh();
+        questionPackService.rebuild();
+        questionSearchService.rebuild();
+    }
+
+    /**
+     * Reads a JSON array of questions element by element, so heap use depends on
+     * the batch size rather than the size of the pack. An element that does not
+     * bind to a question (a wrong type, say) is reported and skipped; broken JSON
+     * ends the pack at that point, keeping what was read before it.
+     */
+    private void importPack(InputStream is, String source, Run run) throws IOException {
+
+        QuestionImportReport report = run.report;
+        report.setFiles(report.getFiles() + 1);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Set<String> seen = new HashSet<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(is)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                error(report, source + ": expected a JSON array of questions");
+                return;
+            }
+
+            int index = 0;
+            for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+                if (token == null) {
+                    error(report, source + ": unexpected end of the question array");
+                    break;
+                }
+                String label = source + "[" + index++ + "]";
+                report.setRead(report.getRead() + 1);
+
+                // one element at a time as a tree, so a bad one is skipped whole
+                JsonNode element = objectMapper.readTree(parser);
+                QuestionJsonDTO dto;
+                try {
+                    if (!element.isObject()) {
+                        throw new IllegalArgumentException("expected a question object");
+                    }
+                    dto = objectMapper.treeToValue(element, QuestionJsonDTO.class);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    error(report, label + ": " + message(e));
+                    continue;
+                }
+
+                String problem = validate(dto);
+                if (problem != null) {
+                    error(report, label + ": " + problem);
+                } else {
+                    String hash = contentHash(dto.getLevel(), dto.getQuestionEn(), dto.getQuestionTa(),
+                            dto.getOptionsEn(), dto.getOptionsTa());
+                    // a batch may not touch the same row twice in ON CONFLICT DO UPDATE
+                    if (!seen.add(hash)) {
+                        report.setUnchanged(report.getUnchanged() + 1);
+                    } else if (keep(dto, hash, label, run)) {
+                        batch.add(row(dto, hash));
+                    }
+                }
+
+                if (batch.size() == BATCH_SIZE || run.merges.size() == BATCH_SIZE) {
+                    flush(batch, run);
+                    seen.clear();
+                }
+            }
+        } catch (JsonParseException e) {
+            error(report, source + ": " + message(e));
+        }
+
+        flush(batch, run);
+    }
+
+    /** The problem without Jackson's source excerpt, which may quote a whole pack. */
+    private static String message(Exception e) {
+        return e instanceof JsonProcessingException j ? j.getOriginalMessage() : e.getMessage();
+    }
+
+    /**
+     * Checks a valid question against the near-duplicate detector and reports a
+     * match; returns whether the question should still be written as it is.
+     */
+    private boolean keep(QuestionJsonDTO dto, String hash, String label, Run run) throws IOException {
+        if (run.detector == null) {
+            return true;
+        }
+        NearDuplicateDetector.Candidate candidate = run.detector.candidate(label, hash, dto.getLevel(),
+                dto.getQuestionEn(), dto.getOptionsEn(), dto.getQuestionTa(), dto.getOptionsTa());
+        NearDuplicateDetector.Match match = run.detector.find(candidate);
+        if (match == null || run.mode == NearDuplicates.REPORT) {
+            run.detector.add(candidate);
+        }
+        if (match == null) {
+            return true;
+        }
+
+        QuestionImportReport report = run.report;
+        report.setNearDuplicates(report.getNearDuplicates() + 1);
+        if (report.getDuplicates().size() < MAX_REPORTED_DUPLICATES) {
+            report.getDuplicates().add(new QuestionImportReport.NearDuplicate(
+                    label, match.matched(), Math.round(match.similarity() * 100) / 100.0));
+        }
+        switch (run.mode) {
+            case SKIP -> report.setSkipped(report.getSkipped() + 1);
+            // the match may be a row of this import still in the batch; flush upserts the batch first
+            case MERGE -> run.merges.add(mergeRow(dto, match.matchedHash(), run.version));
+            default -> { }
+        }
+        return run.mode == NearDuplicates.REPORT;
+    }
+
+    private void flush(List<Object[]> batch, Run run) {
+        QuestionImportReport report = run.report;
+        if (!batch.isEmpty()) {
+            upsert(batch, run);
+        }
+        // after the upsert, so a question kept earlier in this import is there to merge into
+        if (!run.merges.isEmpty()) {
+            int[] counts = jdbcTemplate.batchUpdate(MERGE_SQL, run.merges);
+            for (int count : counts) {
+                if (count == 0) {
+                    report.setUnchanged(report.getUnchanged() + 1);
+                } else {
+                    report.setMerged(report.getMerged() + 1);
+                }
+            }
+            run.merges.clear();
+        }
+    }
+
+    private void upsert(List<Object[]> batch, Run run) {
+        Object[][] columns = new Object[UPSERT_TYPES.length][batch.size()];
+        for (int r = 0; r < batch.size(); r++) {
+            for (int c = 0; c < UPSERT_TYPES.length; c++) {
+                columns[c][r] = batch.get(r)[c];
+            }
+        }
+        int written = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setLong(1, run.version);
+            for (int c = 0; c < UPSERT_TYPES.length; c++) {
+                ps.setArray(c + 2, con.createArrayOf(UPSERT_TYPES[c], columns[c]));
+            }
+            return ps;
+        }, (rs, n) -> rs.getString(1)).size();
+
+        QuestionImportReport report = run.report;
+        report.setWritten(report.getWritten() + written);
+        report.setUnchanged(report.getUnchanged() + batch.size() - written);
+        batch.clear();
+    }
+
+    /** One batch row, in {@link #UPSERT_TYPES} order. */
+    private Object[] row(QuestionJsonDTO dto, String hash) throws IOException {
+        return new Object[]{
+                dto.getQuestionEn(),
+                dto.getQuestionTa(),
+                objectMapper.writeValueAsString(dto.getOptionsEn()),
+                objectMapper.writeValueAsString(dto.getOptionsTa()),
+                dto.getCorrectAnswer(),
+                dto.getLevel(),
+                dto.getExplanationEn(),
+                dto.getExplanationTa(),
+                dto.getRelatedImage(),
+                hash
+        };
+    }
+
+    private Object[] mergeRow(QuestionJsonDTO dto, String keptHash, long version) throws IOException {
+        return new Object[]{
+                dto.getQuestionEn(),
+                dto.getQuestionTa(),
+                dto.getOptionsEn() == null ? null : objectMapper.writeValueAsString(dto.getOptionsEn()),
+                dto.getOptionsTa() == null ? null : objectMapper.writeValueAsString(dto.getOptionsTa()),
+                dto.getExplanationEn(),
+                dto.getExplanationTa(),
+                dto.getRelatedImage(),
+                dto.getCorrectAnswer(),
+                version,
+                keptHash
+        };
+    }
+
+    private static String validate(QuestionJsonDTO dto) {
+        if (dto.getQuestionEn() == null && dto.getQuestionTa() == null) {
+            return "Question must have at least one language";
+        }
+        if (dto.getLevel() == null) {
+            return "Question must have a level";
+        }
+        Integer answer = dto.getCorrectAnswer();
+        if (answer != null && (answer < 0
+                || dto.getOptionsEn() != null && answer >= dto.getOptionsEn().size()
+                || dto.getOptionsTa() != null && answer >= dto.getOptionsTa().size())) {
+            return "Question's correctAnswer must be the index of one of its options";
+        }
+        return null;
+    }
+
+    private static void error(QuestionImportReport report, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(message);
+        }
+    }
+
+    /**
+     * Rows imported before {@code content_hash} existed have no hash. Give each one
+     * its hash so the upsert recognises it; exact duplicates left behind by earlier
+     * double imports keep a null hash rather than violating the unique constraint.
+     */
+    private void backfillContentHashes() {
+        List<Question> legacy = questionRepository.findByContentHashIsNull();
+        if (legacy.isEmpty()) {
+            return;
+        }
+
+        Set<String> taken = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT content_hash FROM questions WHERE content_hash IS NOT NULL", String.class));
+        List<Question> updated = new ArrayList<>();
+
+        for (Question q : legacy) {
+            try {
+                String hash = contentHash(q.getLevel(), q.getQuestionEn(), q.getQuestionTa(),
+                        parseOptions(q.getOptionsEn()), parseOptions(q.getOptionsTa()));
+                if (taken.add(hash)) {
+                    q.setContentHash(hash);
+                    updated.add(q);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to hash question " + q.getId(), e);
+            }
+        }
+
+        questionRepository.saveAll(updated);
+    }
+
+    private List<String> parseOptions(String json) throws IOException {
+        return json == null ? null : objectMapper.readValue(json, STRING_LIST);
+    }
+
+    static String contentHash(String level, String questionEn, String questionTa,
+                              List<String> optionsEn, List<String> optionsTa) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, level);
+            update(digest, questionEn);
+            update(digest, questionTa);
+            update(digest, optionsEn == null ? null : String.join("\u001e", optionsEn));
+            update(digest, optionsTa == null ? null : String.join("\u001e", optionsTa));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        if (value != null) {
+            digest.update(value.strip().getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0x1f);
+    }
+
+    /** State of one import call. */
+    private static final class Run {
+
+        final QuestionImportReport report;
+        final long version;
+        final NearDuplicates mode;
+        final NearDuplicateDetector detector; // null when detection is off
+        final List<Object[]> merges = new ArrayList<>();
+
+        Run(QuestionImportReport report, long version, NearDuplicates mode, NearDuplicateDetector detector) {
+            this.report = report;
+            this.version = version;
+            this.mode = mode;
+            this.detector = detector;
+        }
     }
 }
@@ -0,0 +1,63 @@
+package com.school.service;
+
+import com.school.dto.QuestionPackInfo;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Offline question packs for the Android app, one per level and language. Packs
+ * are built from the in-memory bank after every import (on first request after a
+ * restart) and kept encoded and gzipped; a device that already holds version {@code v} asks for the
+ * delta since {@code v} and receives only the rows later imports wrote.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionPackService {
+
+    private final QuestionBankCache questionBankCache;
+
+    /** Builds every full pack now, so the first device after an import does not pay for it. */
+    public void rebuild() {
+        long bytes = 0;
+        int packs = 0;
+        for (String[] key : questionBankCache.poolKeys()) {
+            CachedBody pack = questionBankCache.packBody(key[0], key[1], 0);
+            if (pack != null) {
+                bytes += pack.getGzip().length;
+                packs++;
+            }
+        }
+        log.info("Built {} offline question packs at bank version {} ({} KB gzipped)",
+                packs, questionBankCache.version(), bytes / 1024);
+    }
+
+    public List<QuestionPackInfo> manifest() {
+        List<QuestionPackInfo> manifest = new ArrayList<>();
+        for (String[] key : questionBankCache.poolKeys()) {
+            CachedBody pack = questionBankCache.packBody(key[0], key[1], 0);
+            if (pack != null) {
+                int[] count = {0};
+                questionBankCache.forEachInPool(key[0], key[1], id -> count[0]++);
+                manifest.add(new QuestionPackInfo(key[0], key[1], questionBankCache.version(), count[0],
+                        pack.getJson().length, pack.getGzip().length, pack.getSha256()));
+            }
+        }
+        return manifest;
+    }
+
+    /** The whole pack when {@code since} is 0, otherwise the questions changed after that version. */
+    public CachedBody pack(String level, String language, long since) {
+        CachedBody pack = questionBankCache.packBody(level, language, since);
+        if (pack == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No question pack for " + level + "/" + language);
+        }
+        return pack;
+    }
+}
@@ -0,0 +1,334 @@
+package com.school.service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Immutable inverted index over the question text, options and explanations of
+ * one bank snapshot, one term dictionary per language. Postings carry their
+ * BM25 weight, computed at build time with question text counting more than
+ * options and options more than explanations, so a query only adds floats.
+ * Query terms of three or more characters also match longer terms that start
+ * with them, which lets a Tamil stem find its suffixed forms.
+ */
+public final class QuestionSearchIndex {
+
+    public static final QuestionSearchIndex EMPTY = build(List.of());
+
+    static final float QUESTION_WEIGHT = 3;
+    static final float OPTION_WEIGHT = 2;
+    static final float EXPLANATION_WEIGHT = 1;
+    static final int MIN_PREFIX = 3;        // code points
+    static final int MAX_EXPANSIONS = 50;   // longer terms tried per query term
+    static final float PREFIX_FACTOR = 0.6f;
+    static final int MAX_QUERY_TERMS = 16;
+
+    private static final int MAX_TERM_LENGTH = 40;
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on",
+            "or", "that", "the", "this", "to", "was", "what", "which", "who", "with");
+
+    private final List<CachedQuestion> source;
+    private final String[] levels;
+    private final int[] docLevels; // index into levels, per document
+    private final Postings en;
+    private final Postings ta;
+
+    private QuestionSearchIndex(List<CachedQuestion> source, String[] levels, int[] docLevels,
+                                Postings en, Postings ta) {
+        this.source = source;
+        this.levels = levels;
+        this.docLevels = docLevels;
+        this.en = en;
+        this.ta = ta;
+    }
+
+    /** @param bank the bank's question list; documents are its positions */
+    public static QuestionSearchIndex build(List<CachedQuestion> bank) {
+        Map<String, Integer> levelOrdinals = new HashMap<>();
+        int[] docLevels = new int[bank.size()];
+        for (int d = 0; d < bank.size(); d++) {
+            String level = bank.get(d).getLevel();
+            String key = level == null ? "" : level.toLowerCase(Locale.ROOT);
+            docLevels[d] = levelOrdinals.computeIfAbsent(key, k -> levelOrdinals.size());
+        }
+        String[] levels = new String[levelOrdinals.size()];
+        levelOrdinals.forEach((level, ordinal) -> levels[ordinal] = level);
+
+        return new QuestionSearchIndex(bank, levels, docLevels,
+                Postings.build(bank, CachedQuestion::getEn),
+                Postings.build(bank, CachedQuestion::getTa));
+    }
+
+    /** The list this index was built from, to tell whether the bank has been reloaded since. */
+    public List<CachedQuestion> source() {
+        return source;
+    }
+
+    /**
+     * Ranks questions by how many query terms they contain, then by BM25 score.
+     *
+     * @param level only questions of this level, or every level when null
+     */
+    public Result search(String query, String language, String level, int limit) {
+        List<String> terms = new ArrayList<>(terms(query));
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+        int levelOrdinal = -1;
+        if (level != null) {
+            levelOrdinal = Arrays.asList(levels).indexOf(level.toLowerCase(Locale.ROOT));
+            if (levelOrdinal < 0) {
+                return new Result(0, List.of());
+            }
+        }
+        if (terms.isEmpty() || limit <= 0) {
+            return new Result(0, List.of());
+        }
+
+        Postings postings = "ta".equals(QuestionBankCache.language(language)) ? ta : en;
+        float[] scores = new float[docLevels.length];
+        int[] matched = new int[docLevels.length]; // bit per query term
+        int[] touched = new int[64];
+        int touchedCount = 0;
+
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            int bit = 1 << t;
+            int from = postings.lowerBound(term);
+            boolean prefix = term.codePointCount(0, term.length()) >= MIN_PREFIX;
+            int end = prefix ? Math.min(postings.terms.length, from + MAX_EXPANSIONS) : from + 1;
+
+            for (int j = from; j < end && j < postings.terms.length; j++) {
+                String candidate = postings.terms[j];
+                boolean exact = candidate.equals(term);
+                if (!exact && !(prefix && candidate.startsWith(term))) {
+                    break;
+                }
+                float factor = exact ? 1 : PREFIX_FACTOR;
+                int[] docs = postings.docs[j];
+                float[] weights = postings.weights[j];
+                for (int k = 0; k < docs.length; k++) {
+                    int d = docs[k];
+                    if (levelOrdinal >= 0 && docLevels[d] != levelOrdinal) {
+                        continue;
+                    }
+                    if (matched[d] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = d;
+                    }
+                    matched[d] |= bit;
+                    scores[d] += weights[k] * factor;
+                }
+            }
+        }
+
+        // bounded heap whose head is the weakest of the best `limit` so far; ties go to the lower id
+        Comparator<Integer> order = (a, b) -> {
+            int byTerms = Integer.compare(Integer.bitCount(matched[a]), Integer.bitCount(matched[b]));
+            if (byTerms != 0) {
+                return byTerms;
+            }
+            int byScore = Float.compare(scores[a], scores[b]);
+            return byScore != 0 ? byScore : Integer.compare(b, a);
+        };
+        PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, touchedCount) + 1, order);
+        for (int i = 0; i < touchedCount; i++) {
+            int d = touched[i];
+            if (best.size() < limit) {
+                best.add(d);
+            } else if (order.compare(d, best.peek()) > 0) {
+                best.poll();
+                best.add(d);
+            }
+        }
+
+        Match[] ranked = new Match[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int d = best.poll();
+            ranked[i] = new Match(source.get(d), scores[d], Integer.bitCount(matched[d]));
+        }
+        return new Result(touchedCount, Arrays.asList(ranked));
+    }
+
+    /** Distinct searchable terms of a query, in order. */
+    static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        tokenize(text, terms::add);
+        return terms;
+    }
+
+    /**
+     * Splits text into lower-cased NFC terms. Combining marks stay inside the
+     * word, so Tamil vowel signs and the pulli (virama) do not split a word the
+     * way {@link Character#isLetterOrDigit} alone would, and zero-width
+     * (non-)joiners are dropped rather than treated as separators.
+     */
+    static void tokenize(String text, Consumer<String> sink) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+        StringBuilder term = new StringBuilder();
+        int length = 0;
+        for (int i = 0; i < normalized.length(); ) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (cp == 0x200C || cp == 0x200D) {
+                continue;
+            }
+            if (isWordPart(cp)) {
+                if (length < MAX_TERM_LENGTH) {
+                    term.appendCodePoint(Character.toLowerCase(cp));
+                }
+                length++;
+            } else if (!term.isEmpty()) {
+                emit(term, length, sink);
+                term.setLength(0);
+                length = 0;
+            }
+        }
+        if (!term.isEmpty()) {
+            emit(term, length, sink);
+        }
+    }
+
+    private static boolean isWordPart(int cp) {
+        if (Character.isLetterOrDigit(cp)) {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+
+    private static void emit(StringBuilder term, int length, Consumer<String> sink) {
+        String value = term.toString();
+        // single Latin letters ("a", the "s" of "it's") carry nothing; single digits and Tamil letters do
+        if (length == 1 && value.charAt(0) < 0x80 && !Character.isDigit(value.charAt(0))) {
+            return;
+        }
+        if (!STOP_WORDS.contains(value)) {
+            sink.accept(value);
+        }
+    }
+
+    public record Result(int total, List<Match> matches) {
+    }
+
+    public record Match(CachedQuestion question, float score, int matchedTerms) {
+    }
+
+    /** Sorted term dictionary with parallel posting lists, for one language. */
+    private static final class Postings {
+
+        final String[] terms;
+        final int[][] docs;      // ascending document positions
+        final float[][] weights; // BM25 weight of the term in each document
+
+        private Postings(String[] terms, int[][] docs, float[][] weights) {
+            this.terms = terms;
+            this.docs = docs;
+            this.weights = weights;
+        }
+
+        int lowerBound(String term) {
+            int i = Arrays.binarySearch(terms, term);
+            return i < 0 ? -i - 1 : i;
+        }
+
+        static Postings build(List<CachedQuestion> bank, Function<CachedQuestion, CachedQuestion.Localized> view) {
+            Map<String, TermBuilder> dictionary = new HashMap<>();
+            float[] lengths = new float[bank.size()];
+            int documents = 0;
+            double totalLength = 0;
+
+            for (int d = 0; d < bank.size(); d++) {
+                CachedQuestion.Localized localized = view.apply(bank.get(d));
+                if (localized.getResponse().getQuestion() == null) {
+                    continue;
+                }
+                // documents are added in order, so a term's builder merges repeats into its last posting
+                int doc = d;
+                float[] length = {0};
+                Consumer<String> question = term -> count(dictionary, doc, length, term, QUESTION_WEIGHT);
+                Consumer<String> option = term -> count(dictionary, doc, length, term, OPTION_WEIGHT);
+                Consumer<String> explanation = term -> count(dictionary, doc, length, term, EXPLANATION_WEIGHT);
+
+                tokenize(localized.getResponse().getQuestion(), question);
+                for (String text : localized.getResponse().getOptions()) {
+                    tokenize(text, option);
+                }
+                tokenize(localized.getExplanation(), explanation);
+
+                lengths[d] = length[0];
+                totalLength += length[0];
+                documents++;
+            }
+
+            String[] terms = dictionary.keySet().toArray(new String[0]);
+            Arrays.sort(terms);
+            int[][] docs = new int[terms.length][];
+            float[][] weights = new float[terms.length][];
+            float average = documents == 0 ? 1 : (float) (totalLength / documents);
+
+            for (int t = 0; t < terms.length; t++) {
+                TermBuilder builder = dictionary.get(terms[t]);
+                int df = builder.size;
+                float idf = (float) Math.log(1 + (documents - df + 0.5) / (df + 0.5));
+                docs[t] = Arrays.copyOf(builder.docs, df);
+                weights[t] = new float[df];
+                for (int k = 0; k < df; k++) {
+                    float tf = builder.frequencies[k];
+                    float norm = K1 * (1 - B + B * lengths[docs[t][k]] / average);
+                    weights[t][k] = idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+            return new Postings(terms, docs, weights);
+        }
+
+        private static void count(Map<String, TermBuilder> dictionary, int doc, float[] length, String term,
+                                  float weight) {
+            dictionary.computeIfAbsent(term, k -> new TermBuilder()).add(doc, weight);
+            length[0] += weight;
+        }
+    }
+
+    private static final class TermBuilder {
+
+        int[] docs = new int[4];
+        float[] frequencies = new float[4];
+        int size;
+
+        void add(int doc, float frequency) {
+            if (size > 0 && docs[size - 1] == doc) {
+                frequencies[size - 1] += frequency;
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.school.service;
+
+import com.school.dto.QuestionSearchResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keyword search over the question bank for teachers building their own quizzes.
+ * Serves from a {@link QuestionSearchIndex} built at startup and after every
+ * import; a query that finds the bank reloaded by other means rebuilds it first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionSearchService {
+
+    public static final int MAX_LIMIT = 100;
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final QuestionBankCache questionBankCache;
+
+    private volatile QuestionSearchIndex index = QuestionSearchIndex.EMPTY;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        QuestionSearchIndex built = index();
+        log.info("Indexed {} questions for search in {} ms",
+                built.source().size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @param language {@code en} or {@code ta}; when absent, Tamil if the query
+     *                 contains Tamil script and English otherwise
+     */
+    public QuestionSearchResponse search(String query, String language, String level, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query is empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Search query is longer than " + MAX_QUERY_LENGTH + " characters");
+        }
+        String lang = language == null || language.isBlank()
+                ? (containsTamil(query) ? "ta" : "en")
+                : QuestionBankCache.language(language);
+        String levelFilter = level == null || level.isBlank() ? null : level;
+
+        QuestionSearchIndex current = index();
+        long start = System.nanoTime();
+        QuestionSearchIndex.Result result = current.search(query, lang, levelFilter,
+                Math.max(1, Math.min(limit, MAX_LIMIT)));
+        long micros = (System.nanoTime() - start) / 1_000;
+
+        List<QuestionSearchResponse.Hit> hits = new ArrayList<>(result.matches().size());
+        for (QuestionSearchIndex.Match match : result.matches()) {
+            hits.add(new QuestionSearchResponse.Hit(match.score(), match.matchedTerms(),
+                    match.question().in(lang).getDto()));
+        }
+        return new QuestionSearchResponse(query, lang, result.total(), micros, hits);
+    }
+
+    private QuestionSearchIndex index() {
+        QuestionSearchIndex current = index;
+        List<CachedQuestion> bank = questionBankCache.questions();
+        if (current.source() == bank) {
+            return current;
+        }
+        synchronized (this) {
+            if (index.source() != bank) {
+                index = QuestionSearchIndex.build(bank);
+            }
+            return index;
+        }
+    }
+
+    private static boolean containsTamil(String text) {
+        return text.codePoints().anyMatch(cp -> Character.UnicodeBlock.of(cp) == Character.UnicodeBlock.TAMIL);
+    }
+}
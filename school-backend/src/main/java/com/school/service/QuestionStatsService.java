@@ -0,0 +1,243 @@
+package com.school.service;
+
+import com.school.dto.QuestionStatsResponse;
+import com.school.entity.QuestionStats;
+import com.school.repository.QuestionStatsRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-question answer statistics. Submissions only bump in-memory {@link LongAdder}
+ * cells, which stripe contended updates across CPUs, so a popular question never
+ * becomes a hot row; a scheduled flusher adds the deltas since its last run to
+ * {@code question_stats} in one batch.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuestionStatsService {
+
+    /** Below this many answers the item metrics are too noisy to flag. */
+    public static final int MIN_ANSWERS_FOR_FLAGS = 30;
+
+    static final int OPTIONS = 5;
+
+    // counter slots, in the column order of UPSERT_SQL
+    private static final int SERVED = 0;
+    private static final int ANSWERED = 1;
+    private static final int CORRECT = 2;
+    private static final int OPTION_0 = 3;
+    private static final int OPTION_OTHER = OPTION_0 + OPTIONS;
+    private static final int REST_CORRECT_COUNT = OPTION_OTHER + 1;
+    private static final int REST_CORRECT_SUM = REST_CORRECT_COUNT + 1;
+    private static final int REST_INCORRECT_COUNT = REST_CORRECT_SUM + 1;
+    private static final int REST_INCORRECT_SUM = REST_INCORRECT_COUNT + 1;
+    private static final int REST_SQUARE_SUM = REST_INCORRECT_SUM + 1;
+    private static final int SLOTS = REST_SQUARE_SUM + 1;
+
+    private static final String[] COLUMNS = {
+            "served", "answered", "correct",
+            "option_0", "option_1", "option_2", "option_3", "option_4", "option_other",
+            "rest_correct_count", "rest_correct_sum", "rest_incorrect_count", "rest_incorrect_sum", "rest_square_sum"
+    };
+    private static final String UPSERT_SQL = upsertSql();
+
+    private final QuestionStatsRepository questionStatsRepository;
+    private final QuestionBankCache questionBankCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Counters> counters = new ConcurrentHashMap<>();
+
+    public void served(long[] questionIds) {
+        for (long id : questionIds) {
+            counters(id).cells[SERVED].increment();
+        }
+    }
+
+    /**
+     * Records one graded answer. {@code restPercent} is the share of the other
+     * questions in the same quiz answered correctly, or negative for one-question quizzes.
+     */
+    public void answered(long questionId, int selectedOption, boolean correct, int restPercent) {
+        LongAdder[] cells = counters(questionId).cells;
+        cells[ANSWERED].increment();
+        if (correct) {
+            cells[CORRECT].increment();
+        }
+        cells[selectedOption >= 0 && selectedOption < OPTIONS ? OPTION_0 + selectedOption : OPTION_OTHER].increment();
+
+        if (restPercent >= 0) {
+            cells[correct ? REST_CORRECT_COUNT : REST_INCORRECT_COUNT].increment();
+            cells[correct ? REST_CORRECT_SUM : REST_INCORRECT_SUM].add(restPercent);
+            cells[REST_SQUARE_SUM].add((long) restPercent * restPercent);
+        }
+    }
+
+    /**
+     * Adds everything counted since the previous flush to {@code question_stats}.
+     * Counters are never reset; each question remembers what it already wrote, so
+     * increments racing with a flush are simply picked up by the next one and a
+     * failed flush is retried in full.
+     */
+    @Scheduled(fixedDelayString = "${quiz.stats.flush-interval-ms:10000}",
+            initialDelayString = "${quiz.stats.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        List<Counters> changed = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        counters.forEach((id, c) -> {
+            long[] delta = new long[SLOTS];
+            boolean any = false;
+            for (int i = 0; i < SLOTS; i++) {
+                delta[i] = c.cells[i].sum() - c.flushed[i];
+                any |= delta[i] != 0;
+            }
+            if (any) {
+                Object[] row = new Object[SLOTS + 1];
+                row[0] = id;
+                for (int i = 0; i < SLOTS; i++) {
+                    row[i + 1] = delta[i];
+                }
+                rows.add(row);
+                changed.add(c);
+            }
+        });
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        } catch (RuntimeException e) {
+            log.warn("Flushing statistics for {} questions failed, will retry", rows.size(), e);
+            return;
+        }
+
+        for (int r = 0; r < rows.size(); r++) {
+            long[] flushed = changed.get(r).flushed;
+            for (int i = 0; i < SLOTS; i++) {
+                flushed[i] += (long) rows.get(r)[i + 1];
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Item analysis for every question with at least {@code minAnswered} answers,
+     * optionally limited to one level and to flagged questions.
+     */
+    public List<QuestionStatsResponse> report(String level, long minAnswered, boolean flaggedOnly) {
+        flush();
+
+        List<QuestionStatsResponse> result = new ArrayList<>();
+        for (QuestionStats s : questionStatsRepository.findByAnsweredGreaterThanEqualOrderByQuestionId(minAnswered)) {
+            CachedQuestion q = questionBankCache.get(s.getQuestionId());
+            String questionLevel = q == null ? null : q.getLevel();
+            if (level != null && (questionLevel == null || !questionLevel.equalsIgnoreCase(level))) {
+                continue;
+            }
+
+            QuestionStatsResponse response = analyse(s, questionLevel);
+            if (!flaggedOnly || !response.getFlags().isEmpty()) {
+                result.add(response);
+            }
+        }
+        return result;
+    }
+
+    static QuestionStatsResponse analyse(QuestionStats s, String level) {
+        Double p = s.getAnswered() == 0 ? null : (double) s.getCorrect() / s.getAnswered();
+        Double discrimination = pointBiserial(s);
+
+        List<String> flags = new ArrayList<>(2);
+        if (p != null && s.getAnswered() >= MIN_ANSWERS_FOR_FLAGS) {
+            if (p < 0.2) {
+                flags.add("TOO_HARD");
+            } else if (p > 0.9) {
+                flags.add("TOO_EASY");
+            }
+            // strong students getting it wrong more often than weak ones usually means a wrong key
+            if (discrimination != null && discrimination < 0) {
+                flags.add("CHECK_KEY");
+            }
+        }
+
+        return new QuestionStatsResponse(
+                s.getQuestionId(),
+                level == null ? null : level.toLowerCase(Locale.ROOT),
+                s.getServed(),
+                s.getAnswered(),
+                s.getCorrect(),
+                p,
+                discrimination,
+                List.of(s.getOption0(), s.getOption1(), s.getOption2(), s.getOption3(), s.getOption4(), s.getOptionOther()),
+                flags
+        );
+    }
+
+    /** Correlation between getting this question right and the rest score of the quiz. */
+    static Double pointBiserial(QuestionStats s) {
+        long n1 = s.getRestCorrectCount();
+        long n0 = s.getRestIncorrectCount();
+        long n = n1 + n0;
+        if (n1 == 0 || n0 == 0) {
+            return null;
+        }
+
+        double mean = (double) (s.getRestCorrectSum() + s.getRestIncorrectSum()) / n;
+        double variance = (double) s.getRestSquareSum() / n - mean * mean;
+        if (variance <= 0) {
+            return null;
+        }
+
+        double mean1 = (double) s.getRestCorrectSum() / n1;
+        double mean0 = (double) s.getRestIncorrectSum() / n0;
+        double p = (double) n1 / n;
+        return (mean1 - mean0) / Math.sqrt(variance) * Math.sqrt(p * (1 - p));
+    }
+
+    private Counters counters(long questionId) {
+        return counters.computeIfAbsent(questionId, id -> new Counters());
+    }
+
+    private static String upsertSql() {
+        StringBuilder sql = new StringBuilder("INSERT INTO question_stats (question_id");
+        for (String column : COLUMNS) {
+            sql.append(", ").append(column);
+        }
+        sql.append(") VALUES (?").append(", ?".repeat(COLUMNS.length)).append(") ON CONFLICT (question_id) DO UPDATE SET ");
+        for (int i = 0; i < COLUMNS.length; i++) {
+            sql.append(i == 0 ? "" : ", ")
+                    .append(COLUMNS[i]).append(" = question_stats.").append(COLUMNS[i])
+                    .append(" + EXCLUDED.").append(COLUMNS[i]);
+        }
+        return sql.toString();
+    }
+
+    private static final class Counters {
+
+        final LongAdder[] cells = new LongAdder[SLOTS];
+        final long[] flushed = new long[SLOTS]; // written so far; only touched by flush()
+
+        Counters() {
+            for (int i = 0; i < SLOTS; i++) {
+                cells[i] = new LongAdder();
+            }
+        }
+    }
+}
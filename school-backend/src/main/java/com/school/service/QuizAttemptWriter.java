@@ -0,0 +1,388 @@
+package com.school.service;
+
+import com.school.dto.WriteBehindStats;
+import com.school.entity.QuizAttempt;
+import com.school.repository.QuizAttemptRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Persists graded quiz attempts. By default each attempt is saved synchronously,
+ * in one transaction with its progress aggregate, joining the caller's
+ * transaction if there is one. With {@code quiz.attempts.write-behind.enabled=true}
+ * attempts are queued instead and a single flusher thread group-commits them as
+ * multi-row JDBC batches, together with their progress aggregates.
+ * <p>
+ * Write-behind weakens what a caller's transaction covers: it commits once the
+ * attempt is queued, before the attempt is stored. An attempt and its progress
+ * row still commit together, in the flush, and a failed flush rolls back both.
+ * <p>
+ * A batch that fails to commit is kept and retried with exponential backoff
+ * while the queue fills behind it; once the queue is full, submitters write
+ * synchronously and see the database error themselves. After
+ * {@code MAX_FLUSH_ATTEMPTS} failures the batch is retried row by row, so one
+ * bad row does not hold back the rest. Rows are only given up when shutdown
+ * finds the database still failing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QuizAttemptWriter implements SmartLifecycle {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO quiz_attempts (user_id, level, total_questions, correct_answers, score, attempted_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?)";
+    // one statement for the whole upload; the unique index drops keys that are already stored
+    private static final String INSERT_ONCE_SQL = """
+            INSERT INTO quiz_attempts (user_id, level, total_questions, correct_answers, score, attempted_at, client_key)
+            SELECT ?, a.level, a.total_questions, a.correct_answers, a.score, a.attempted_at, a.client_key
+            FROM unnest(?::text[], ?::int[], ?::int[], ?::int[], ?::timestamp[], ?::text[])
+                AS a(level, total_questions, correct_answers, score, attempted_at, client_key)
+            ON CONFLICT (user_id, client_key) DO NOTHING
+            RETURNING client_key
+            """;
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+
+    private final QuizAttemptRepository quizAttemptRepository;
+    private final UserProgressService userProgressService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${quiz.attempts.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${quiz.attempts.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${quiz.attempts.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${quiz.attempts.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${quiz.attempts.write-behind.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    @Value("${quiz.attempts.write-behind.retry-initial-ms:100}")
+    private long retryInitialMs;
+
+    @Value("${quiz.attempts.write-behind.retry-max-ms:5000}")
+    private long retryMaxMs;
+
+    private BlockingQueue<QuizAttempt> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong writtenDirectly = new AtomicLong();
+    private final AtomicLong flushed = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile int retrying;
+    private volatile long lastFlushNanos;
+    private volatile long maxFlushNanos;
+
+    /**
+     * Records an attempt. In write-behind mode this returns as soon as the attempt
+     * is queued; when the queue stays full for {@code offer-timeout-ms} the caller
+     * writes it synchronously, which slows submitters down instead of dropping data.
+     */
+    public void write(QuizAttempt attempt) {
+        if (running) {
+            try {
+                if (queue.offer(attempt, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    enqueued.incrementAndGet();
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        writtenDirectly.incrementAndGet();
+        transactionTemplate.executeWithoutResult(status -> {
+            quizAttemptRepository.save(attempt);
+            if (attempt.getUserId() != null) {
+                userProgressService.record(attempt);
+            }
+        });
+    }
+
+    /**
+     * Records many attempts at once, e.g. a whole class at the end of a live
+     * session: one multi-row batch and the progress aggregates in a single
+     * transaction, whether or not write-behind is enabled.
+     */
+    public void writeAll(List<QuizAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return;
+        }
+        writtenDirectly.addAndGet(attempts.size());
+        transactionTemplate.executeWithoutResult(status -> insert(attempts));
+    }
+
+    /**
+     * Records one user's attempts that carry a {@code clientKey}, skipping keys the
+     * user already stored: a single insert and the progress aggregate in one
+     * transaction, bypassing write-behind so the caller learns what was stored.
+     *
+     * @return the keys of the attempts inserted by this call
+     */
+    public Set<String> writeOnce(Long userId, List<QuizAttempt> attempts) {
+        if (attempts.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> inserted = transactionTemplate.execute(status -> {
+            Set<String> keys = new HashSet<>(jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_ONCE_SQL);
+                ps.setLong(1, userId);
+                ps.setArray(2, con.createArrayOf("text", column(attempts, QuizAttempt::getLevel)));
+                ps.setArray(3, con.createArrayOf("int4", column(attempts, QuizAttempt::getTotalQuestions)));
+                ps.setArray(4, con.createArrayOf("int4", column(attempts, QuizAttempt::getCorrectAnswers)));
+                ps.setArray(5, con.createArrayOf("int4", column(attempts, QuizAttempt::getScore)));
+                ps.setArray(6, con.createArrayOf("timestamp", column(attempts,
+                        a -> a.getAttemptedAt() == null ? null : Timestamp.valueOf(a.getAttemptedAt()))));
+                ps.setArray(7, con.createArrayOf("text", column(attempts, QuizAttempt::getClientKey)));
+                return ps;
+            }, (rs, n) -> rs.getString(1)));
+
+            userProgressService.recordAll(attempts.stream().filter(a -> keys.contains(a.getClientKey())).toList());
+            return keys;
+        });
+        writtenDirectly.addAndGet(inserted.size());
+        return inserted;
+    }
+
+    public WriteBehindStats stats() {
+        return new WriteBehindStats(
+                enabled,
+                queue == null ? 0 : queue.size(),
+                queueCapacity,
+                enqueued.get(),
+                writtenDirectly.get(),
+                flushed.get(),
+                batches.get(),
+                retries.get(),
+                retrying,
+                failed.get(),
+                lastFlushNanos / 1_000_000.0,
+                maxFlushNanos / 1_000_000.0
+        );
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::flushLoop, "quiz-attempt-flusher");
+        flusher.start();
+        log.info("Quiz attempt write-behind enabled (capacity={}, batch={}, interval={}ms)",
+                queueCapacity, batchSize, flushIntervalMs);
+    }
+
+    /**
+     * Stops accepting queued writes and waits for the flusher to drain what is
+     * already queued. Runs after the web server has stopped taking requests and
+     * before the DataSource is closed.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // a submission that raced with shutdown may have been queued after the flusher's last check
+        List<QuizAttempt> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            flush(rest);
+        }
+        log.info("Quiz attempt write-behind stopped, {} attempts flushed", flushed.get());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // below the web server's graceful-shutdown phase, so in-flight submissions finish first
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        List<QuizAttempt> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                QuizAttempt first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // group commit: collect until the batch is full or the interval since the first row elapses
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+                while (batch.size() < batchSize && running) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    QuizAttempt next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+
+                flush(batch);
+            } catch (InterruptedException e) {
+                // shutdown is driven by the running flag; keep what was collected and keep draining
+                flush(batch);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Commits the batch, retrying with backoff until it is stored. Gives up only
+     * during shutdown, after {@code MAX_FLUSH_ATTEMPTS} tries.
+     */
+    private void flush(List<QuizAttempt> batch) {
+        List<QuizAttempt> pending = batch;
+        long backoff = retryInitialMs;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            if (attempt > 1) {
+                retries.incrementAndGet();
+            }
+            try {
+                pending = attempt <= MAX_FLUSH_ATTEMPTS ? insertBatch(pending) : insertEach(pending);
+            } catch (RuntimeException e) {
+                log.warn("Flushing {} quiz attempts failed (try {}), retrying in {} ms",
+                        pending.size(), attempt, backoff, e);
+            }
+            if (pending.isEmpty()) {
+                break;
+            }
+            if (attempt >= MAX_FLUSH_ATTEMPTS && (!running || Thread.currentThread().isInterrupted())) {
+                drop(pending);
+                break;
+            }
+            retrying = pending.size();
+            pause(backoff);
+            backoff = Math.min(backoff * 2, retryMaxMs);
+        }
+        retrying = 0;
+    }
+
+    /** @return nothing left to write; throws when the batch did not commit */
+    private List<QuizAttempt> insertBatch(List<QuizAttempt> batch) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> insert(batch));
+
+        long elapsed = System.nanoTime() - start;
+        lastFlushNanos = elapsed;
+        maxFlushNanos = Math.max(maxFlushNanos, elapsed);
+        flushed.addAndGet(batch.size());
+        batches.incrementAndGet();
+        return List.of();
+    }
+
+    /** One transaction per row, so rows that fail do not hold back the others; @return the rows that failed */
+    private List<QuizAttempt> insertEach(List<QuizAttempt> rows) {
+        List<QuizAttempt> rest = new ArrayList<>();
+        RuntimeException last = null;
+        for (QuizAttempt a : rows) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> insert(List.of(a)));
+                flushed.incrementAndGet();
+            } catch (RuntimeException e) {
+                rest.add(a);
+                last = e;
+            }
+        }
+        if (last != null) {
+            log.warn("{} of {} quiz attempts still fail to flush", rest.size(), rows.size(), last);
+        }
+        return rest;
+    }
+
+    private void drop(List<QuizAttempt> rows) {
+        failed.addAndGet(rows.size());
+        for (QuizAttempt a : rows) {
+            log.error("Dropped quiz attempt at shutdown userId={} level={} correct={}/{} score={} at={}",
+                    a.getUserId(), a.getLevel(), a.getCorrectAnswers(), a.getTotalQuestions(),
+                    a.getScore(), a.getAttemptedAt());
+        }
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** The attempt rows, then every user's progress row in one set-based pass, whatever the batch size. */
+    private void insert(List<QuizAttempt> batch) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows(batch));
+        if (batch.stream().anyMatch(a -> a.getUserId() != null)) {
+            userProgressService.recordAll(batch);
+        }
+    }
+
+    private static Object[] column(List<QuizAttempt> attempts, Function<QuizAttempt, Object> value) {
+        Object[] column = new Object[attempts.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = value.apply(attempts.get(i));
+        }
+        return column;
+    }
+
+    private static List<Object[]> rows(List<QuizAttempt> batch) {
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (QuizAttempt a : batch) {
+            rows.add(new Object[]{
+                    a.getUserId(),
+                    a.getLevel(),
+                    a.getTotalQuestions(),
+                    a.getCorrectAnswers(),
+                    a.getScore(),
+                    a.getAttemptedAt() == null ? null : Timestamp.valueOf(a.getAttemptedAt())
+            });
+        }
+        return rows;
+    }
+}
@@ -3,129 +3,547 @@ import com.school.dto.*;
 import com.school.entity.Question;
 import com.school.entity.QuizAttempt;
 import com.school.repository.QuestionRepository;
-import com.school.repository.QuizAttemptRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import java.sql.PreparedStatement;
+import java.time.Instant;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongToIntFunction;
 
 @Service
 @RequiredArgsConstructor
 public class QuizService {
 
+    static final int MAX_CLIENT_KEY_LENGTH = 64;
+    static final int MAX_OFFLINE_ANSWERS = 200;
+
     private final QuestionRepository questionRepository;
-    private final QuizAttemptRepository quizAttemptRepository;
-    private final ObjectMapper objectMapper;
-    public List<QuizQuestionDTO> startQuiz(
+    private final QuestionBankCache questionBankCache;
+    private final QuizAttemptWriter quizAttemptWriter;
+    private final LeaderboardService leaderboardService;
+    private final QuizTicketService quizTicketService;
+    private final AdaptiveDifficultyService adaptiveDifficultyService;
+    private final QuestionStatsService questionStatsService;
+    private final SeenQuestionService seenQuestionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${quiz.sync.max-attempts:500}")
+    private int maxSyncAttempts;
+
+    // how long a quiz drawn online may be taken offline before its attempt is uploaded
+    @Value("${quiz.sync.ticket-max-age-days:14}")
+    private long ticketMaxAgeDays;
+
+    /**
+     * Draws a quiz of 1 to {@code QuizTicketService.MAX_QUESTIONS} questions,
+     * preferring questions the student has not seen yet, and signs a ticket for
+     * it. The ticket travels back with the submission, so grading knows exactly
+     * which questions were handed out.
+     */
+    public QuizDraw drawQuiz(
+            Long userId,
             String level,
             String language,
             int limit
     ) {
 
-        List<Question> questions =
-                questionRepository.findRandomByLevel(level, limit);
+        return ticketed(userId, level, language, seenQuestionService.draw(userId, level, language, clamp(limit)));
+    }
 
-        return questions.stream().map(q -> {
-            try {
-                return QuizQuestionDTO.builder()
-                        .id(q.getId())
-                        .question(
-                                language.equalsIgnoreCase("ta")
-                                        ? q.getQuestionTa()
-                                        : q.getQuestionEn()
-                        )
-                        .options(
-                                language.equalsIgnoreCase("ta")
-                                        ? objectMapper.readValue(
-                                        q.getOptionsTa(),
-                                        new TypeReference<List<String>>() {}
-                                )
-                                        : objectMapper.readValue(
-                                        q.getOptionsEn(),
-                                        new TypeReference<List<String>>() {}
-                                )
-                        )
-                        .level(q.getLevel())
-                        .image(q.getRelatedImage())
-                        .build();
-
-            } catch (Exception e) {
-                throw new RuntimeException("Failed to parse options", e);
-            }
-        }).toList();
-    }
-    public List<QuizQuestionResponse> getQuizQuestions(
-            String level,
+    /** Draws questions matched to the student's current ability estimate instead of a fixed level. */
+    public QuizDraw drawAdaptive(
+            Long userId,
             String language,
             int limit
-    ) throws Exception {
-
-        List<Question> questions =
-                questionRepository.findByLevel(level,limit);
-
-        Collections.shuffle(questions);
-
-        return questions.stream()
-                .limit(limit)
-                .map(q -> {
-                    try {
-                        List<String> options =
-                                "ta".equalsIgnoreCase(language)
-                                        ? objectMapper.readValue(
-                                        q.getOptionsTa(),
-                                        new TypeReference<List<String>>() {})
-                                        : objectMapper.readValue(
-                                        q.getOptionsEn(),
-                                        new TypeReference<List<String>>() {});
-
-                        return new QuizQuestionResponse(
-                                q.getId(),
-                                "ta".equalsIgnoreCase(language)
-                                        ? q.getQuestionTa()
-                                        : q.getQuestionEn(),
-                                options
-                        );
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to parse options JSON", e);
-                    }
-                })
-                .toList();
+    ) {
+
+        return ticketed(userId, AdaptiveDifficultyService.LEVEL, language,
+                adaptiveDifficultyService.select(userId, language, clamp(limit)));
+    }
+
+    /** Keeps a requested quiz length within what a ticket can carry. */
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, QuizTicketService.MAX_QUESTIONS));
     }
 
+    private QuizDraw ticketed(Long userId, String level, String language, List<CachedQuestion> questions) {
+        long[] ids = new long[questions.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = questions.get(i).getId();
+        }
+        questionStatsService.served(ids);
+
+        return new QuizDraw(
+                questionBankCache.toJson(questions, language),
+                quizTicketService.issue(userId, level, language, ids)
+        );
+    }
+
+    /**
+     * Grades a submission against its ticket. Only questions on the ticket are
+     * graded, each at most once, and unanswered ones count as wrong; the level
+     * recorded is the ticket's, not the client's. Only the user the ticket was
+     * issued to may submit it, so quizzes drawn anonymously are practice only.
+     * Each ticket is graded once; submitting it again is rejected with 409. The
+     * ticket is consumed in the same transaction as the attempt is written (or,
+     * with write-behind, queued), after grading, so a submission rejected for its
+     * answers or failing to store can be sent again.
+     */
     public QuizResultResponse submitQuiz(
             Long userId,
             QuizSubmitRequest request
     ) {
 
-        int correct = 0;
+        List<AnswerDTO> answers = request.getAnswers();
+        if (answers == null || answers.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quiz submission has no answers");
+        }
+
+        QuizTicket ticket = quizTicketService.verify(request.getTicket());
+        if (ticket.getUserId() == null || !ticket.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Quiz ticket was not issued to this user");
+        }
+        quizTicketService.checkDeadline(ticket);
 
-        for (AnswerDTO answer : request.getAnswers()) {
+        long[] ids = ticket.getQuestionIds();
+        Grading grading = grade(ids, answerKey(ids), ticket::indexOf, answers);
+        QuizResultResponse result = grading.result();
 
-            Question q = questionRepository.findById(answer.getQuestionId())
-                    .orElseThrow();
+        transactionTemplate.executeWithoutResult(status -> {
+            quizTicketService.consume(ticket, userId, quizTicketService.deadline(ticket));
+            quizAttemptWriter.write(
+                    QuizAttempt.builder()
+                            .userId(userId)
+                            .level(ticket.getLevel())
+                            .totalQuestions(result.getTotalQuestions())
+                            .correctAnswers(result.getCorrectAnswers())
+                            .score(result.getScore())
+                            .attemptedAt(LocalDateTime.now())
+                            .build()
+            );
+        });
 
-            if (q.getCorrectAnswer().equals(answer.getSelectedOption())) {
-                correct++;
+        recordAnswers(userId, ids, grading);
+        leaderboardService.record(userId, result.getCorrectAnswers());
+        return result;
+    }
+
+    /**
+     * Grades a finished live session the same way as a ticketed submission, then
+     * writes every student's attempt in one batch instead of one transaction per
+     * student. Students who answered nothing get no attempt.
+     */
+    public Map<Long, QuizResultResponse> submitSession(
+            String level,
+            long[] questionIds,
+            Map<Long, List<AnswerDTO>> answersByUser
+    ) {
+
+        long[] sorted = questionIds.clone();
+        Arrays.sort(sorted);
+        int[] key = answerKey(sorted);
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, QuizResultResponse> results = new LinkedHashMap<>();
+        List<QuizAttempt> attempts = new ArrayList<>(answersByUser.size());
+
+        for (Map.Entry<Long, List<AnswerDTO>> entry : answersByUser.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
             }
+            questionStatsService.served(sorted);
+            Grading grading = grade(sorted, key, id -> Arrays.binarySearch(sorted, id), entry.getValue());
+            recordAnswers(entry.getKey(), sorted, grading);
+            QuizResultResponse result = grading.result();
+            results.put(entry.getKey(), result);
+            attempts.add(QuizAttempt.builder()
+                    .userId(entry.getKey())
+                    .level(level)
+                    .totalQuestions(result.getTotalQuestions())
+                    .correctAnswers(result.getCorrectAnswers())
+                    .score(result.getScore())
+                    .attemptedAt(now)
+                    .build());
         }
 
-        int total = request.getAnswers().size();
-        int score = (correct * 100) / total;
+        quizAttemptWriter.writeAll(attempts);
+        results.forEach((userId, result) -> leaderboardService.record(userId, result.getCorrectAnswers()));
+        return results;
+    }
+
+    /**
+     * Grades and stores attempts a student took offline and reports on each one.
+     * Every attempt names the ticket of a quiz the student drew while online and
+     * is graded like a ticketed submission: against all of the ticket's
+     * questions, at the ticket's level, and only once per ticket. Every attempt
+     * also carries a client-generated key; a key the student already uploaded
+     * is reported as a duplicate and not graded again, so retrying a whole
+     * upload is safe. The answer key of every question in the upload is
+     * resolved once, and the tickets are consumed and the new attempts inserted
+     * in one transaction. A bad attempt is rejected on its own without failing
+     * the rest.
+     */
+    public OfflineSyncResponse syncOffline(
+            Long userId,
+            List<OfflineAttemptRequest> attempts
+    ) {
 
-        quizAttemptRepository.save(
-                QuizAttempt.builder()
+        if (attempts == null || attempts.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to sync");
+        }
+        if (attempts.size() > maxSyncAttempts) {
+            throw new ResponseStatusException(HttpStatus.CONTENT_TOO_LARGE,
+                    "At most " + maxSyncAttempts + " attempts per upload");
+        }
+
+        OfflineSyncResponse response = new OfflineSyncResponse();
+        response.setReceived(attempts.size());
+        OfflineSyncResponse.Item[] items = new OfflineSyncResponse.Item[attempts.size()];
+
+        // first use of each key in this upload, by position
+        Map<String, Integer> pending = new LinkedHashMap<>();
+        for (int i = 0; i < attempts.size(); i++) {
+            OfflineAttemptRequest attempt = attempts.get(i);
+            String key = attempt == null ? null : attempt.getClientKey();
+            String problem = validate(attempt);
+            if (problem != null) {
+                items[i] = rejected(key, problem);
+            } else if (pending.putIfAbsent(key, i) != null) {
+                items[i] = duplicate(key);
+            }
+        }
+        for (String key : storedClientKeys(userId, pending.keySet())) {
+            Integer i = pending.remove(key);
+            if (i != null) {
+                items[i] = duplicate(key);
+            }
+        }
+
+        // each ticket backs at most one attempt
+        long now = System.currentTimeMillis() / 1000;
+        Map<String, QuizTicket> tickets = new HashMap<>();
+        Set<String> ticketIds = new HashSet<>();
+        for (Iterator<Map.Entry<String, Integer>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Integer> entry = it.next();
+            OfflineAttemptRequest attempt = attempts.get(entry.getValue());
+            QuizTicket ticket = null;
+            String problem;
+            try {
+                ticket = quizTicketService.verify(attempt.getTicket());
+                problem = checkOfflineTicket(userId, ticket, attempt, now);
+            } catch (ResponseStatusException e) {
+                problem = e.getReason();
+            }
+            if (problem == null && !ticketIds.add(ticket.getId())) {
+                problem = "Quiz ticket is used by another attempt in this upload";
+            }
+            if (problem != null) {
+                items[entry.getValue()] = rejected(entry.getKey(), problem);
+                it.remove();
+            } else {
+                tickets.put(entry.getKey(), ticket);
+            }
+        }
+
+        // one answer-key lookup for every question on the tickets
+        long[] ids = tickets.values().stream()
+                .flatMapToLong(t -> Arrays.stream(t.getQuestionIds()))
+                .sorted()
+                .distinct()
+                .toArray();
+        int[] keys = resolveKeys(ids);
+        Map<String, int[]> answerKeys = new HashMap<>();
+        for (Iterator<Map.Entry<String, Integer>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Integer> entry = it.next();
+            long[] own = tickets.get(entry.getKey()).getQuestionIds();
+            int[] ownKey = new int[own.length];
+            Set<Long> unknown = new TreeSet<>();
+            for (int j = 0; j < own.length; j++) {
+                ownKey[j] = keys[Arrays.binarySearch(ids, own[j])];
+                if (ownKey[j] == QuestionBankCache.UNKNOWN) {
+                    unknown.add(own[j]);
+                }
+            }
+            if (unknown.isEmpty()) {
+                answerKeys.put(entry.getKey(), ownKey);
+            } else {
+                items[entry.getValue()] = rejected(entry.getKey(), "Unknown question ids: " + unknown);
+                it.remove();
+            }
+        }
+
+        // answers were checked against their tickets above, so grading cannot reject any more
+        Map<String, Grading> graded = new HashMap<>();
+        for (String key : pending.keySet()) {
+            QuizTicket ticket = tickets.get(key);
+            graded.put(key, grade(ticket.getQuestionIds(), answerKeys.get(key), ticket::indexOf,
+                    attempts.get(pending.get(key)).getAnswers()));
+        }
+
+        LocalDateTime uploadedAt = LocalDateTime.now();
+        // a concurrent upload of the same key or ticket loses at the unique index
+        Set<String> inserted = transactionTemplate.execute(status -> {
+            List<QuizTicket> fresh = pending.keySet().stream().map(tickets::get).toList();
+            long[] expiresAt = fresh.stream().mapToLong(t -> t.getIssuedAt() + ticketMaxAgeSeconds()).toArray();
+            Set<String> consumed = quizTicketService.consumeAll(fresh, userId, expiresAt);
+
+            List<QuizAttempt> rows = new ArrayList<>(pending.size());
+            for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+                String key = entry.getKey();
+                OfflineAttemptRequest attempt = attempts.get(entry.getValue());
+                QuizTicket ticket = tickets.get(key);
+                if (!consumed.contains(ticket.getId())) {
+                    items[entry.getValue()] = rejected(key, "Quiz ticket has already been submitted");
+                    continue;
+                }
+
+                QuizResultResponse result = graded.get(key).result();
+                rows.add(QuizAttempt.builder()
                         .userId(userId)
-                        .level(request.getLevel())
-                        .totalQuestions(total)
-                        .correctAnswers(correct)
-                        .score(score)
-                        .attemptedAt(LocalDateTime.now())
-                        .build()
-        );
+                        .level(ticket.getLevel())
+                        .totalQuestions(result.getTotalQuestions())
+                        .correctAnswers(result.getCorrectAnswers())
+                        .score(result.getScore())
+                        .attemptedAt(attemptedAt(attempt, ticket, uploadedAt))
+                        .clientKey(key)
+                        .build());
+            }
+            return quizAttemptWriter.writeOnce(userId, rows);
+        });
+
+        for (Map.Entry<String, Integer> entry : pending.entrySet()) {
+            String key = entry.getKey();
+            if (items[entry.getValue()] != null) {
+                continue; // ticket already submitted
+            }
+            if (inserted.contains(key)) {
+                Grading grading = graded.get(key);
+                items[entry.getValue()] = new OfflineSyncResponse.Item(key, OfflineSyncResponse.Status.CREATED,
+                        grading.result(), null);
+                recordAnswers(userId, tickets.get(key).getQuestionIds(), grading);
+                leaderboardService.record(userId, grading.result().getCorrectAnswers());
+            } else {
+                items[entry.getValue()] = duplicate(key);
+            }
+        }
+
+        for (OfflineSyncResponse.Item item : items) {
+            switch (item.getStatus()) {
+                case CREATED -> response.setCreated(response.getCreated() + 1);
+                case DUPLICATE -> response.setDuplicates(response.getDuplicates() + 1);
+                case REJECTED -> response.setRejected(response.getRejected() + 1);
+            }
+            response.getResults().add(item);
+        }
+        return response;
+    }
+
+    private String checkOfflineTicket(Long userId, QuizTicket ticket, OfflineAttemptRequest attempt, long now) {
+        if (ticket.getUserId() == null || !ticket.getUserId().equals(userId)) {
+            return "Quiz ticket was not issued to this user";
+        }
+        if (now > ticket.getIssuedAt() + ticketMaxAgeSeconds()) {
+            return "Quiz ticket has expired";
+        }
+        for (AnswerDTO answer : attempt.getAnswers()) {
+            if (ticket.indexOf(answer.getQuestionId()) < 0) {
+                return "Question " + answer.getQuestionId() + " is not part of this quiz";
+            }
+        }
+        return null;
+    }
+
+    /** Device time, but no earlier than the draw and no later than the upload. */
+    private static LocalDateTime attemptedAt(OfflineAttemptRequest attempt, QuizTicket ticket, LocalDateTime uploadedAt) {
+        LocalDateTime drawnAt = LocalDateTime.ofInstant(Instant.ofEpochSecond(ticket.getIssuedAt()), ZoneId.systemDefault());
+        LocalDateTime at = attempt.getAttemptedAt();
+        if (at == null || at.isAfter(uploadedAt)) {
+            return uploadedAt;
+        }
+        return at.isBefore(drawnAt) ? drawnAt : at;
+    }
+
+    private long ticketMaxAgeSeconds() {
+        return ticketMaxAgeDays * 86_400;
+    }
+
+    private static String validate(OfflineAttemptRequest attempt) {
+        if (attempt == null) {
+            return "Attempt is empty";
+        }
+        String key = attempt.getClientKey();
+        if (key == null || key.isBlank() || key.length() > MAX_CLIENT_KEY_LENGTH) {
+            return "clientKey must be 1 to " + MAX_CLIENT_KEY_LENGTH + " characters";
+        }
+        if (attempt.getTicket() == null || attempt.getTicket().isBlank()) {
+            return "Attempt has no quiz ticket";
+        }
+        List<AnswerDTO> answers = attempt.getAnswers();
+        if (answers == null || answers.isEmpty()) {
+            return "Attempt has no answers";
+        }
+        if (answers.size() > MAX_OFFLINE_ANSWERS) {
+            return "At most " + MAX_OFFLINE_ANSWERS + " answers per attempt";
+        }
+        for (AnswerDTO answer : answers) {
+            if (answer == null || answer.getQuestionId() == null) {
+                return "Answer is missing questionId";
+            }
+        }
+        return null;
+    }
+
+    private Set<String> storedClientKeys(Long userId, Set<String> keys) {
+        if (keys.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "SELECT client_key FROM quiz_attempts WHERE user_id = ? AND client_key = ANY(?)");
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("text", keys.toArray()));
+            return ps;
+        }, (rs, n) -> rs.getString(1)));
+    }
+
+    private static OfflineSyncResponse.Item duplicate(String clientKey) {
+        return new OfflineSyncResponse.Item(clientKey, OfflineSyncResponse.Status.DUPLICATE, null, null);
+    }
+
+    private static OfflineSyncResponse.Item rejected(String clientKey, String message) {
+        return new OfflineSyncResponse.Item(clientKey, OfflineSyncResponse.Status.REJECTED, null, message);
+    }
+
+    /**
+     * Grades answers to the questions {@code ids}, located by {@code indexOf}, whose
+     * correct options are {@code key}. Each question counts at most once and
+     * unanswered ones count as wrong. Has no side effects; once the attempt is
+     * stored, the caller passes the grading to {@link #recordAnswers}.
+     */
+    private static Grading grade(long[] ids, int[] key, LongToIntFunction indexOf, List<AnswerDTO> answers) {
+        int[] chosen = new int[key.length];
+        boolean[] seen = new boolean[key.length];
+        boolean[] graded = new boolean[key.length];
+        boolean[] right = new boolean[key.length];
+        int correct = 0;
+
+        for (AnswerDTO answer : answers) {
+            if (answer.getQuestionId() == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Answer is missing questionId");
+            }
+            int i = indexOf.applyAsInt(answer.getQuestionId());
+            if (i < 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                        "Question " + answer.getQuestionId() + " is not part of this quiz");
+            }
+            if (seen[i]) {
+                continue; // the first answer to a question stands
+            }
+            seen[i] = true;
+
+            // unanswered, or a question without a key: scores as wrong, but chose no option,
+            // so it stays out of the answer statistics and the ability estimate
+            Integer selected = answer.getSelectedOption();
+            if (selected == null || key[i] == QuestionBankCache.NO_ANSWER) {
+                continue;
+            }
+            // an option outside the question's range is simply wrong, tallied as "other"
+            graded[i] = true;
+            chosen[i] = selected;
+            right[i] = key[i] == selected;
+            if (right[i]) {
+                correct++;
+            }
+        }
+
+        int total = key.length;
+        int score = total == 0 ? 0 : (correct * 100) / total;
+        return new Grading(new QuizResultResponse(total, correct, score), chosen, graded, right);
+    }
+
+    /** Feeds a stored attempt's chosen options to question statistics and the user's ability estimate. */
+    private void recordAnswers(Long userId, long[] ids, Grading grading) {
+        int total = grading.graded().length;
+        int correct = grading.result().getCorrectAnswers();
+        for (int i = 0; i < total; i++) {
+            if (!grading.graded()[i]) {
+                continue;
+            }
+            boolean right = grading.right()[i];
+            int rest = total > 1 ? (correct - (right ? 1 : 0)) * 100 / (total - 1) : -1;
+            questionStatsService.answered(ids[i], grading.chosen()[i], right, rest);
+            adaptiveDifficultyService.record(userId, ids[i], right);
+        }
+    }
+
+    /**
+     * Resolves the correct option for every question from the cached key. Ids the
+     * cache does not know (e.g. removed by a re-import after the draw) are loaded
+     * in a single batch; ids that still cannot be found reject the submission.
+     */
+    private int[] answerKey(long[] ids) {
+        int[] key = resolveKeys(ids);
+        Set<Long> unknown = new TreeSet<>();
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] == QuestionBankCache.UNKNOWN) {
+                unknown.add(ids[i]);
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown question ids: " + unknown);
+        }
+        return key;
+    }
+
+    /** Like {@link #answerKey}, but leaves {@link QuestionBankCache#UNKNOWN} for ids that do not exist. */
+    private int[] resolveKeys(long[] ids) {
+        int[] key = new int[ids.length];
+        Set<Long> misses = new HashSet<>();
+
+        for (int i = 0; i < key.length; i++) {
+            key[i] = questionBankCache.correctAnswer(ids[i]);
+            if (key[i] == QuestionBankCache.UNKNOWN) {
+                misses.add(ids[i]);
+            }
+        }
+
+        if (misses.isEmpty()) {
+            return key;
+        }
+
+        Map<Long, Integer> loaded = new HashMap<>();
+        for (Question q : questionRepository.findAllById(misses)) {
+            loaded.put(q.getId(), q.getCorrectAnswer() == null ? QuestionBankCache.NO_ANSWER : q.getCorrectAnswer());
+        }
+
+        for (int i = 0; i < key.length; i++) {
+            if (key[i] == QuestionBankCache.UNKNOWN) {
+                key[i] = loaded.getOrDefault(ids[i], QuestionBankCache.UNKNOWN);
+            }
+        }
+        return key;
+    }
+
+    public record QuizDraw(byte[] json, String ticket) {
+    }
 
-        return new QuizResultResponse(total, correct, score);
+    /** The result of {@link #grade}, plus per question whether an option was chosen, which, and if it was right. */
+    private record Grading(QuizResultResponse result, int[] chosen, boolean[] graded, boolean[] right) {
     }
 }
@@ -0,0 +1,31 @@
+package com.school.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * The contents of a verified quiz ticket: who drew which questions, in what
+ * level and language, and when.
+ */
+@Getter
+@AllArgsConstructor
+public final class QuizTicket {
+
+    private final String id; // hex of the signature; unique per issued ticket
+    private final Long userId; // null for tickets drawn without a login
+    private final String level;
+    private final String language;
+    private final long issuedAt; // epoch seconds
+    private final long[] questionIds; // sorted ascending
+
+    /** Position of the id in {@link #getQuestionIds()}, or a negative value if it was not drawn. */
+    public int indexOf(long questionId) {
+        return Arrays.binarySearch(questionIds, questionId);
+    }
+
+    public int size() {
+        return questionIds.length;
+    }
+}
@@ -0,0 +1,299 @@
+package com.school.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Issues and verifies quiz tickets: the drawn question ids plus level, language,
+ * issue time and user, packed as varints and signed with HMAC-SHA256. A ticket
+ * for ten questions is about 100 characters. Verifying needs no server-side
+ * state; only tickets that have been submitted are remembered, in
+ * {@code used_quiz_tickets}, until they expire, so each is graded once.
+ *
+ * <pre>
+ * version(1) nonce(8) userId issuedAt language(1) levelLength level count firstId delta... | tag(16)
+ * </pre>
+ */
+@Slf4j
+@Service
+public class QuizTicketService {
+
+    private static final byte VERSION = 2;
+    private static final int NONCE_LENGTH = 8;
+    private static final int TAG_LENGTH = 16;
+    static final int MAX_QUESTIONS = 1000;
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String CONSUME_SQL =
+            "INSERT INTO used_quiz_tickets (ticket_id, user_id, expires_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (ticket_id) DO NOTHING";
+    private static final String CONSUME_ALL_SQL = """
+            INSERT INTO used_quiz_tickets (ticket_id, user_id, expires_at)
+            SELECT t.ticket_id, ?, t.expires_at FROM unnest(?::text[], ?::timestamp[]) AS t(ticket_id, expires_at)
+            ON CONFLICT (ticket_id) DO NOTHING
+            RETURNING ticket_id
+            """;
+
+    private final Mac prototype;
+    private final long secondsPerQuestion;
+    private final long graceSeconds;
+    private final JdbcTemplate jdbcTemplate;
+    private final SecureRandom random = new SecureRandom();
+
+    public QuizTicketService(@Value("${quiz.ticket.secret:}") String secret,
+                             @Value("${quiz.ticket.seconds-per-question:60}") long secondsPerQuestion,
+                             @Value("${quiz.ticket.grace-seconds:120}") long graceSeconds,
+                             JdbcTemplate jdbcTemplate) {
+        byte[] key;
+        if (secret.isBlank()) {
+            // tickets then only verify on this instance and die with it
+            log.warn("quiz.ticket.secret is not set; using a random key");
+            key = new byte[32];
+            random.nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+
+        try {
+            this.prototype = Mac.getInstance(ALGORITHM);
+            this.prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+        this.secondsPerQuestion = secondsPerQuestion;
+        this.graceSeconds = graceSeconds;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** Signs a ticket for the drawn questions; more than {@code MAX_QUESTIONS} is rejected with 400. */
+    public String issue(Long userId, String level, String language, long[] questionIds) {
+        if (questionIds.length > MAX_QUESTIONS) {
+            throw invalid("A quiz has at most " + MAX_QUESTIONS + " questions");
+        }
+        long[] ids = questionIds.clone();
+        Arrays.sort(ids);
+        byte[] levelBytes = (level == null ? "" : level).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + levelBytes.length + ids.length * 3);
+        out.write(VERSION);
+        byte[] nonce = new byte[NONCE_LENGTH]; // two identical draws in the same second still get distinct tickets
+        random.nextBytes(nonce);
+        out.write(nonce, 0, NONCE_LENGTH);
+        writeVarint(out, userId == null ? 0 : userId);
+        writeVarint(out, System.currentTimeMillis() / 1000);
+        out.write("ta".equals(QuestionBankCache.language(language)) ? 1 : 0);
+        writeVarint(out, levelBytes.length);
+        out.write(levelBytes, 0, levelBytes.length);
+        writeVarint(out, ids.length);
+        long previous = 0;
+        for (long id : ids) {
+            writeVarint(out, id - previous);
+            previous = id;
+        }
+
+        byte[] payload = out.toByteArray();
+        byte[] ticket = Arrays.copyOf(payload, payload.length + TAG_LENGTH);
+        System.arraycopy(tag(payload, payload.length), 0, ticket, payload.length, TAG_LENGTH);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(ticket);
+    }
+
+    /**
+     * Checks the signature and decodes the ticket. Rejects forged or corrupted
+     * tickets with 400; the time limit is checked separately by {@link #checkDeadline}.
+     */
+    public QuizTicket verify(String encoded) {
+        if (encoded == null || encoded.isBlank()) {
+            throw invalid("Quiz submission has no ticket");
+        }
+
+        byte[] ticket;
+        try {
+            ticket = Base64.getUrlDecoder().decode(encoded.trim());
+        } catch (IllegalArgumentException e) {
+            throw invalid("Quiz ticket is malformed");
+        }
+        int length = ticket.length - TAG_LENGTH;
+        byte[] tag = length <= 0 ? null : Arrays.copyOfRange(ticket, length, ticket.length);
+        if (tag == null || !MessageDigest.isEqual(tag(ticket, length), tag)) {
+            throw invalid("Quiz ticket signature is invalid");
+        }
+
+        try {
+            Reader in = new Reader(ticket, length);
+            if (in.readByte() != VERSION) {
+                throw invalid("Quiz ticket version is not supported");
+            }
+            in.skip(NONCE_LENGTH);
+            long userId = in.readVarint();
+            long issuedAt = in.readVarint();
+            String language = in.readByte() == 1 ? "ta" : "en";
+            String level = in.readString((int) in.readVarint());
+            long count = in.readVarint();
+            if (count > MAX_QUESTIONS) {
+                throw invalid("Quiz ticket is malformed");
+            }
+            long[] ids = new long[(int) count];
+            long previous = 0;
+            for (int i = 0; i < ids.length; i++) {
+                previous += in.readVarint();
+                ids[i] = previous;
+            }
+            // the tag covers the nonce, so it identifies this one ticket
+            return new QuizTicket(HexFormat.of().formatHex(tag), userId == 0 ? null : userId, level, language,
+                    issuedAt, ids);
+        } catch (IndexOutOfBoundsException e) {
+            throw invalid("Quiz ticket is malformed");
+        }
+    }
+
+    /** The quiz must be submitted within a grace period plus a fixed allowance per question. */
+    public void checkDeadline(QuizTicket ticket) {
+        if (System.currentTimeMillis() / 1000 > deadline(ticket)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quiz time limit exceeded");
+        }
+    }
+
+    /** Epoch second after which {@link #checkDeadline} rejects the ticket. */
+    public long deadline(QuizTicket ticket) {
+        return ticket.getIssuedAt() + graceSeconds + secondsPerQuestion * ticket.size();
+    }
+
+    /**
+     * Marks the ticket as submitted, or rejects it with 409 if it already was.
+     * The record is kept until {@code expiresAt} (epoch seconds), after which the
+     * ticket is refused by its deadline anyway.
+     */
+    public void consume(QuizTicket ticket, Long userId, long expiresAt) {
+        int inserted = jdbcTemplate.update(CONSUME_SQL, ticket.getId(), userId,
+                Timestamp.from(Instant.ofEpochSecond(expiresAt)));
+        if (inserted == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz ticket has already been submitted");
+        }
+    }
+
+    /**
+     * Marks several tickets as submitted in one statement, each remembered until
+     * its own entry in {@code expiresAt}.
+     *
+     * @return the ids of the tickets that had not been submitted before
+     */
+    public Set<String> consumeAll(List<QuizTicket> tickets, Long userId, long[] expiresAt) {
+        if (tickets.isEmpty()) {
+            return Set.of();
+        }
+        Object[] ids = new Object[tickets.size()];
+        Object[] expiries = new Object[tickets.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tickets.get(i).getId();
+            expiries[i] = Timestamp.from(Instant.ofEpochSecond(expiresAt[i]));
+        }
+        return new HashSet<>(jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(CONSUME_ALL_SQL);
+            ps.setLong(1, userId);
+            ps.setArray(2, con.createArrayOf("text", ids));
+            ps.setArray(3, con.createArrayOf("timestamp", expiries));
+            return ps;
+        }, (rs, n) -> rs.getString(1)));
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.ticket.purge-interval-ms:3600000}",
+            initialDelayString = "${quiz.ticket.purge-interval-ms:3600000}")
+    public void purgeUsed() {
+        int purged = jdbcTemplate.update("DELETE FROM used_quiz_tickets WHERE expires_at < ?",
+                Timestamp.from(Instant.now()));
+        if (purged > 0) {
+            log.debug("Purged {} expired used quiz tickets", purged);
+        }
+    }
+
+    private byte[] tag(byte[] data, int length) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HmacSHA256 provider cannot be cloned", e);
+        }
+        mac.update(data, 0, length);
+        return Arrays.copyOf(mac.doFinal(), TAG_LENGTH);
+    }
+
+    private static ResponseStatusException invalid(String message) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private final int limit;
+        private int pos;
+
+        Reader(byte[] data, int limit) {
+            this.data = data;
+            this.limit = limit;
+        }
+
+        int readByte() {
+            if (pos >= limit) {
+                throw new IndexOutOfBoundsException();
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IndexOutOfBoundsException();
+        }
+
+        void skip(int length) {
+            if (pos + length > limit) {
+                throw new IndexOutOfBoundsException();
+            }
+            pos += length;
+        }
+
+        String readString(int length) {
+            if (length < 0 || pos + length > limit) {
+                throw new IndexOutOfBoundsException();
+            }
+            String s = new String(data, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return s;
+        }
+    }
+}
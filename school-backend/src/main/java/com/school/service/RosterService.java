@@ -0,0 +1,253 @@
+package com.school.service;
+
+import com.school.dto.RegisterRequest;
+import com.school.dto.RosterImportReport;
+import com.school.utils.CsvReader;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Registers a whole class roster in one call. Existing emails are found with a
+ * single {@code = ANY(array)} query, passwords are hashed in parallel on a
+ * dedicated fork-join pool, and users and students are written in JDBC batches
+ * using ids reserved up front from the {@code users} identity sequence.
+ */
+@Slf4j
+@Service
+public class RosterService {
+
+    public static final int MAX_ROWS = 5000;
+    static final int BATCH_SIZE = 500;
+    private static final int MAX_REPORTED_ERRORS = 500;
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, email, password, role, status, created_at) VALUES (?, ?, ?, 'STUDENT', 'ACTIVE', ?)";
+    private static final String INSERT_STUDENT_SQL =
+            "INSERT INTO students (user_id, email, full_name, grade, school_name, language) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ForkJoinPool hashPool;
+
+    public RosterService(JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         PasswordEncoder passwordEncoder,
+                         @Value("${auth.roster.hash-threads:0}") int hashThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEncoder = passwordEncoder;
+        // BCrypt is pure CPU; a separate bounded pool keeps a big roster from starving the common pool
+        this.hashPool = new ForkJoinPool(hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdown();
+    }
+
+    /**
+     * Reads a CSV roster with a header row. Recognised columns (any order, case
+     * insensitive): email, password, fullName, grade, schoolName, language.
+     */
+    public RosterImportReport registerCsv(InputStream csv, String schoolName, String grade) {
+        List<List<String>> records;
+        try {
+            records = CsvReader.read(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read roster", e);
+        }
+        if (records.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Roster is empty");
+        }
+
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> header = records.get(0);
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!columns.containsKey("email") || !columns.containsKey("password")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Roster header needs email and password columns");
+        }
+
+        List<RegisterRequest> rows = new ArrayList<>(records.size() - 1);
+        for (List<String> record : records.subList(1, records.size())) {
+            RegisterRequest req = new RegisterRequest();
+            req.setEmail(column(record, columns, "email"));
+            req.setPassword(column(record, columns, "password"));
+            req.setFullName(column(record, columns, "fullname"));
+            req.setGrade(column(record, columns, "grade"));
+            req.setSchoolName(column(record, columns, "schoolname"));
+            req.setLanguage(column(record, columns, "language"));
+            rows.add(req);
+        }
+        return register(rows, schoolName, grade);
+    }
+
+    /**
+     * Registers every valid row as a student. {@code schoolName} and {@code grade}
+     * fill in rows that leave them blank. Invalid rows and emails that are already
+     * taken are reported and skipped; the remaining rows commit together.
+     */
+    public RosterImportReport register(List<RegisterRequest> rows, String schoolName, String grade) {
+        if (rows.size() > MAX_ROWS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Roster has " + rows.size() + " rows, the limit is " + MAX_ROWS);
+        }
+
+        RosterImportReport report = new RosterImportReport();
+        report.setReceived(rows.size());
+
+        List<Row> accepted = new ArrayList<>(rows.size());
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            RegisterRequest req = rows.get(i);
+            String email = blankToNull(req.getEmail());
+            String problem = email == null || !email.contains("@") ? "A valid email is required"
+                    : blankToNull(req.getPassword()) == null ? "Password is required"
+                    : !emails.add(email) ? "Email appears more than once in the roster"
+                    : null;
+            if (problem != null) {
+                error(report, i + 1, email, problem);
+            } else {
+                accepted.add(new Row(i + 1, email, req));
+            }
+        }
+
+        Set<String> taken = existingEmails(emails);
+        accepted.removeIf(row -> {
+            if (taken.contains(row.email)) {
+                error(report, row.index, row.email, "Email already exists");
+                return true;
+            }
+            return false;
+        });
+        if (accepted.isEmpty()) {
+            return report;
+        }
+
+        List<String> hashes = hash(accepted);
+        long[] ids = reserveUserIds(accepted.size());
+        insert(accepted, hashes, ids, schoolName, grade);
+
+        report.setRegistered(accepted.size());
+        log.info("Registered {} students from a roster of {}", accepted.size(), rows.size());
+        return report;
+    }
+
+    private Set<String> existingEmails(Set<String> emails) {
+        if (emails.isEmpty()) {
+            return Set.of();
+        }
+        List<String> found = jdbcTemplate.query(con -> {
+            var ps = con.prepareStatement("SELECT email FROM users WHERE email = ANY(?)");
+            Array array = con.createArrayOf("text", emails.toArray());
+            ps.setArray(1, array);
+            return ps;
+        }, (rs, n) -> rs.getString(1));
+        return new HashSet<>(found);
+    }
+
+    private List<String> hash(List<Row> rows) {
+        try {
+            return hashPool.submit(() -> rows.parallelStream()
+                    .map(row -> passwordEncoder.encode(row.request.getPassword()))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while hashing roster passwords", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to hash roster passwords", e.getCause());
+        }
+    }
+
+    /** One round trip for all ids, so student rows can reference users without RETURNING per row. */
+    private long[] reserveUserIds(int count) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, ?)",
+                Long.class, count);
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private void insert(List<Row> rows, List<String> hashes, long[] ids, String schoolName, String grade) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> students = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Row row = rows.get(i);
+            RegisterRequest req = row.request;
+            users.add(new Object[]{ids[i], row.email, hashes.get(i), now});
+            students.add(new Object[]{
+                    ids[i],
+                    row.email,
+                    blankToNull(req.getFullName()),
+                    orDefault(req.getGrade(), grade),
+                    orDefault(req.getSchoolName(), schoolName),
+                    blankToNull(req.getLanguage())
+            });
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int from = 0; from < users.size(); from += BATCH_SIZE) {
+                    int to = Math.min(from + BATCH_SIZE, users.size());
+                    jdbcTemplate.batchUpdate(INSERT_USER_SQL, users.subList(from, to));
+                    jdbcTemplate.batchUpdate(INSERT_STUDENT_SQL, students.subList(from, to));
+                }
+            });
+        } catch (DuplicateKeyException e) {
+            // someone registered one of these emails after the existence check; nothing was committed
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "An email in the roster was registered concurrently, please retry", e);
+        }
+    }
+
+    private static void error(RosterImportReport report, int row, String email, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new RosterImportReport.RowError(row, email, message));
+        }
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer i = columns.get(name);
+        return i == null || i >= record.size() ? null : record.get(i);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static String orDefault(String value, String fallback) {
+        String v = blankToNull(value);
+        return v != null ? v : blankToNull(fallback);
+    }
+
+    private record Row(int index, String email, RegisterRequest request) {
+    }
+}
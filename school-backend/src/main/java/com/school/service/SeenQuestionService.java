@@ -0,0 +1,162 @@
+package com.school.service;
+
+import com.school.repository.SeenQuestionsRepository;
+import com.school.utils.CompactBitmap;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers which questions each student has already been served, so repeat
+ * quizzes draw fresh questions first. Each student's set is a {@link CompactBitmap}
+ * over question ids; once a level has nothing new left for the student, that
+ * level's questions are forgotten and the cycle starts over. Sets load lazily,
+ * are written back as {@code bytea} on a fixed delay, and idle clean sets are
+ * dropped from memory.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SeenQuestionService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO seen_questions (user_id, bitmap, updated_at) VALUES (?, ?, ?) " +
+                    "ON CONFLICT (user_id) DO UPDATE SET bitmap = EXCLUDED.bitmap, updated_at = EXCLUDED.updated_at";
+
+    private final QuestionBankCache questionBankCache;
+    private final SeenQuestionsRepository seenQuestionsRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${quiz.seen.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Map<Long, Seen> seen = new ConcurrentHashMap<>();
+
+    /**
+     * Draws a quiz for the student, preferring questions they have not been served,
+     * and marks the drawn questions as seen. Anonymous draws are plain random draws.
+     */
+    public List<CachedQuestion> draw(Long userId, String level, String language, int limit) {
+        if (userId == null) {
+            return questionBankCache.draw(level, language, limit);
+        }
+
+        while (true) {
+            Seen s = seen(userId);
+            synchronized (s) {
+                if (s.evicted) {
+                    continue; // dropped by flush() between lookup and lock; load it again
+                }
+                return drawUnseen(s, level, language, limit);
+            }
+        }
+    }
+
+    private List<CachedQuestion> drawUnseen(Seen s, String level, String language, int limit) {
+        // caller holds the lock on s
+        CompactBitmap bitmap = s.bitmap;
+        List<CachedQuestion> drawn = questionBankCache.draw(level, language, limit, bitmap::contains);
+
+        // the cache only falls back to seen questions when the level has run out
+        boolean exhausted = false;
+        for (CachedQuestion q : drawn) {
+            if (bitmap.contains(q.getId())) {
+                exhausted = true;
+                break;
+            }
+        }
+        if (exhausted) {
+            questionBankCache.forEachInPool(level, language, bitmap::remove);
+        }
+
+        for (CachedQuestion q : drawn) {
+            bitmap.add(q.getId());
+        }
+        s.dirty = true;
+        s.lastUsed = System.nanoTime();
+        return drawn;
+    }
+
+    @Scheduled(fixedDelayString = "${quiz.seen.flush-interval-ms:30000}",
+            initialDelayString = "${quiz.seen.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Seen> written = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        seen.forEach((userId, s) -> {
+            synchronized (s) {
+                if (s.dirty) {
+                    rows.add(new Object[]{userId, s.bitmap.toBytes(), now});
+                    written.add(s);
+                    s.dirty = false;
+                }
+            }
+        });
+
+        if (!rows.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            } catch (RuntimeException e) {
+                for (Seen s : written) {
+                    synchronized (s) {
+                        s.dirty = true;
+                    }
+                }
+                log.warn("Saving seen questions for {} students failed, will retry", rows.size(), e);
+                return;
+            }
+        }
+
+        long idleBefore = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleMinutes);
+        seen.entrySet().removeIf(e -> {
+            Seen s = e.getValue();
+            synchronized (s) {
+                s.evicted = !s.dirty && s.lastUsed - idleBefore < 0;
+                return s.evicted;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Seen seen(Long userId) {
+        Seen s = seen.get(userId);
+        if (s != null) {
+            return s;
+        }
+        CompactBitmap bitmap = seenQuestionsRepository.findById(userId)
+                .map(row -> CompactBitmap.fromBytes(row.getBitmap()))
+                .orElseGet(CompactBitmap::new);
+        Seen loaded = new Seen(bitmap);
+        Seen raced = seen.putIfAbsent(userId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    private static final class Seen {
+
+        final CompactBitmap bitmap; // guarded by this
+        boolean dirty;              // guarded by this
+        boolean evicted;            // guarded by this
+        long lastUsed = System.nanoTime();
+
+        Seen(CompactBitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.school.service;
+
+import com.school.dto.UserProgressResponse;
+import com.school.entity.QuizAttempt;
+import com.school.entity.UserProgress;
+import com.school.repository.UserProgressRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Keeps one {@code user_progress} row per student up to date, so the dashboard
+ * reads a single row instead of every attempt the student ever made.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserProgressService {
+
+    static final int BACKFILL_CHUNK = 1000;
+
+    private static final String BACKFILL_LOCK_SQL = "SELECT pg_try_advisory_lock(hashtext('user_progress_backfill'))";
+    private static final String BACKFILL_UNLOCK_SQL = "SELECT pg_advisory_unlock(hashtext('user_progress_backfill'))";
+    private static final String USERS_AFTER_SQL =
+            "SELECT DISTINCT user_id FROM quiz_attempts WHERE user_id > ? ORDER BY user_id LIMIT ?";
+    private static final String ATTEMPTS_OF_SQL =
+            "SELECT user_id, level, score, attempted_at FROM quiz_attempts WHERE user_id = ANY(?) " +
+                    "ORDER BY user_id, attempted_at, id";
+
+    private static final String INSERT_MISSING_SQL = """
+            INSERT INTO user_progress (user_id, attempts, total_score, best_score, current_streak, longest_streak,
+                beginner_attempts, basic_attempts, intermediate_attempts, advanced_attempts)
+            SELECT u.user_id, 0, 0, 0, 0, 0, 0, 0, 0, 0 FROM unnest(?::bigint[]) AS u(user_id)
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+    private static final String LOCK_SQL =
+            "SELECT * FROM user_progress WHERE user_id = ANY(?) ORDER BY user_id FOR UPDATE";
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_progress (user_id, attempts, total_score, best_score, current_streak, longest_streak,
+                last_attempt_date, beginner_attempts, basic_attempts, intermediate_attempts, advanced_attempts)
+            SELECT * FROM unnest(?::bigint[], ?::int[], ?::bigint[], ?::int[], ?::int[], ?::int[], ?::date[],
+                ?::int[], ?::int[], ?::int[], ?::int[])
+            ON CONFLICT (user_id) DO UPDATE SET
+                attempts = EXCLUDED.attempts,
+                total_score = EXCLUDED.total_score,
+                best_score = EXCLUDED.best_score,
+                current_streak = EXCLUDED.current_streak,
+                longest_streak = EXCLUDED.longest_streak,
+                last_attempt_date = EXCLUDED.last_attempt_date,
+                beginner_attempts = EXCLUDED.beginner_attempts,
+                basic_attempts = EXCLUDED.basic_attempts,
+                intermediate_attempts = EXCLUDED.intermediate_attempts,
+                advanced_attempts = EXCLUDED.advanced_attempts
+            """;
+
+    private final UserProgressRepository userProgressRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Folds a new attempt into the user's aggregate. Joins the caller's transaction,
+     * so the aggregate commits or rolls back together with the attempt row.
+     */
+    @Transactional
+    public void record(QuizAttempt attempt) {
+        recordAll(List.of(attempt));
+    }
+
+    /**
+     * Folds a batch of attempts, of any number of users, into their aggregates in
+     * three statements however large the batch: create the missing rows, lock and
+     * read them in user_id order, and write them back in one upsert. Each user's
+     * attempts are applied oldest first; attempts without a user are skipped.
+     * Joins the caller's transaction like {@link #record}.
+     */
+    @Transactional
+    public void recordAll(List<QuizAttempt> attempts) {
+        // sorted, so concurrent batches lock shared rows in the same order
+        Map<Long, List<QuizAttempt>> byUser = new TreeMap<>();
+        for (QuizAttempt attempt : attempts) {
+            if (attempt.getUserId() != null) {
+                byUser.computeIfAbsent(attempt.getUserId(), id -> new ArrayList<>()).add(attempt);
+            }
+        }
+        if (byUser.isEmpty()) {
+            return;
+        }
+
+        List<UserProgress> rows = lock(byUser.keySet().toArray());
+        for (UserProgress p : rows) {
+            byUser.get(p.getUserId()).stream()
+                    .sorted(Comparator.comparing(QuizAttempt::getAttemptedAt, Comparator.nullsLast(Comparator.naturalOrder())))
+                    .forEach(attempt -> apply(p, attempt));
+        }
+        upsert(rows);
+    }
+
+    public UserProgressResponse getProgress(Long userId) {
+        UserProgress p = userProgressRepository.findById(userId)
+                .orElseGet(() -> UserProgress.builder().userId(userId).build());
+
+        Map<String, Integer> byLevel = new LinkedHashMap<>();
+        byLevel.put("beginner", p.getBeginnerAttempts());
+        byLevel.put("basic", p.getBasicAttempts());
+        byLevel.put("intermediate", p.getIntermediateAttempts());
+        byLevel.put("advanced", p.getAdvancedAttempts());
+
+        // a streak is only current if the student played today or yesterday
+        LocalDate last = p.getLastAttemptDate();
+        boolean live = last != null && !last.isBefore(LocalDate.now().minusDays(1));
+
+        return new UserProgressResponse(
+                userId,
+                p.getAttempts(),
+                p.getAttempts() == 0 ? 0 : (double) p.getTotalScore() / p.getAttempts(),
+                p.getBestScore(),
+                live ? p.getCurrentStreak() : 0,
+                p.getLongestStreak(),
+                last,
+                byLevel
+        );
+    }
+
+    /**
+     * Rebuilds every aggregate from {@code quiz_attempts}, {@code BACKFILL_CHUNK}
+     * users per transaction. Each chunk first locks the users' progress rows, the
+     * same locks {@link #recordAll} takes, and only then reads their attempts in
+     * (user_id, attempted_at, id) order. A submission that committed before the
+     * lock is part of the rebuild; one still in flight waits and folds itself
+     * into the rebuilt row. So the backfill is safe under live traffic. Only one
+     * backfill runs at a time, guarded by an advisory lock; a second is
+     * rejected with 409.
+     *
+     * @return number of users rebuilt
+     */
+    public int backfill() {
+        return jdbcTemplate.execute((ConnectionCallback<Integer>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(BACKFILL_LOCK_SQL)) {
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next() || !rs.getBoolean(1)) {
+                        throw new ResponseStatusException(HttpStatus.CONFLICT, "A progress backfill is already running");
+                    }
+                }
+            }
+            try {
+                return rebuildAll();
+            } finally {
+                try (PreparedStatement ps = con.prepareStatement(BACKFILL_UNLOCK_SQL)) {
+                    ps.execute();
+                }
+            }
+        });
+    }
+
+    private int rebuildAll() {
+        long lastUser = Long.MIN_VALUE;
+        int users = 0;
+        while (true) {
+            List<Long> chunk = jdbcTemplate.queryForList(USERS_AFTER_SQL, Long.class, lastUser, BACKFILL_CHUNK);
+            if (chunk.isEmpty()) {
+                return users;
+            }
+            users += transactionTemplate.execute(status -> rebuild(chunk.toArray()));
+            lastUser = chunk.get(chunk.size() - 1);
+        }
+    }
+
+    /** Rebuilds the given users' aggregates, folding their attempts as they stream in. */
+    private int rebuild(Object[] userIds) {
+        lock(userIds);
+        Map<Long, UserProgress> rebuilt = new LinkedHashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(ATTEMPTS_OF_SQL);
+            ps.setArray(1, con.createArrayOf("int8", userIds));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            Timestamp at = rs.getTimestamp("attempted_at");
+            QuizAttempt attempt = QuizAttempt.builder()
+                    .level(rs.getString("level"))
+                    .score((Integer) rs.getObject("score"))
+                    .attemptedAt(at == null ? null : at.toLocalDateTime())
+                    .build();
+            apply(rebuilt.computeIfAbsent(rs.getLong("user_id"), id -> UserProgress.builder().userId(id).build()),
+                    attempt);
+        });
+        upsert(new ArrayList<>(rebuilt.values()));
+        return rebuilt.size();
+    }
+
+    /** Creates the users' missing rows, then locks and reads all of them in user_id order. */
+    private List<UserProgress> lock(Object[] userIds) {
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(INSERT_MISSING_SQL);
+            ps.setArray(1, con.createArrayOf("int8", userIds));
+            return ps;
+        });
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_SQL);
+            ps.setArray(1, con.createArrayOf("int8", userIds));
+            return ps;
+        }, UserProgressService::progress);
+    }
+
+    /** Writes whole aggregates, in list order, with one statement. */
+    private void upsert(List<UserProgress> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_SQL);
+            ps.setArray(1, con.createArrayOf("int8", column(rows, UserProgress::getUserId)));
+            ps.setArray(2, con.createArrayOf("int4", column(rows, UserProgress::getAttempts)));
+            ps.setArray(3, con.createArrayOf("int8", column(rows, UserProgress::getTotalScore)));
+            ps.setArray(4, con.createArrayOf("int4", column(rows, UserProgress::getBestScore)));
+            ps.setArray(5, con.createArrayOf("int4", column(rows, UserProgress::getCurrentStreak)));
+            ps.setArray(6, con.createArrayOf("int4", column(rows, UserProgress::getLongestStreak)));
+            ps.setArray(7, con.createArrayOf("date", column(rows,
+                    p -> p.getLastAttemptDate() == null ? null : Date.valueOf(p.getLastAttemptDate()))));
+            ps.setArray(8, con.createArrayOf("int4", column(rows, UserProgress::getBeginnerAttempts)));
+            ps.setArray(9, con.createArrayOf("int4", column(rows, UserProgress::getBasicAttempts)));
+            ps.setArray(10, con.createArrayOf("int4", column(rows, UserProgress::getIntermediateAttempts)));
+            ps.setArray(11, con.createArrayOf("int4", column(rows, UserProgress::getAdvancedAttempts)));
+            return ps;
+        });
+    }
+
+    private static Object[] column(List<UserProgress> rows, Function<UserProgress, Object> value) {
+        Object[] column = new Object[rows.size()];
+        for (int i = 0; i < column.length; i++) {
+            column[i] = value.apply(rows.get(i));
+        }
+        return column;
+    }
+
+    private static UserProgress progress(ResultSet rs, int row) throws SQLException {
+        Date last = rs.getDate("last_attempt_date");
+        return UserProgress.builder()
+                .userId(rs.getLong("user_id"))
+                .attempts(rs.getInt("attempts"))
+                .totalScore(rs.getLong("total_score"))
+                .bestScore(rs.getInt("best_score"))
+                .currentStreak(rs.getInt("current_streak"))
+                .longestStreak(rs.getInt("longest_streak"))
+                .lastAttemptDate(last == null ? null : last.toLocalDate())
+                .beginnerAttempts(rs.getInt("beginner_attempts"))
+                .basicAttempts(rs.getInt("basic_attempts"))
+                .intermediateAttempts(rs.getInt("intermediate_attempts"))
+                .advancedAttempts(rs.getInt("advanced_attempts"))
+                .build();
+    }
+
+    static void apply(UserProgress p, QuizAttempt attempt) {
+        int score = attempt.getScore() == null ? 0 : attempt.getScore();
+
+        p.setAttempts(p.getAttempts() + 1);
+        p.setTotalScore(p.getTotalScore() + score);
+        p.setBestScore(Math.max(p.getBestScore(), score));
+
+        String level = attempt.getLevel() == null ? "" : attempt.getLevel().toLowerCase();
+        switch (level) {
+            case "beginner" -> p.setBeginnerAttempts(p.getBeginnerAttempts() + 1);
+            case "basic" -> p.setBasicAttempts(p.getBasicAttempts() + 1);
+            case "intermediate" -> p.setIntermediateAttempts(p.getIntermediateAttempts() + 1);
+            case "advanced" -> p.setAdvancedAttempts(p.getAdvancedAttempts() + 1);
+            default -> { }
+        }
+
+        if (attempt.getAttemptedAt() == null) {
+            return;
+        }
+        LocalDate day = attempt.getAttemptedAt().toLocalDate();
+        LocalDate last = p.getLastAttemptDate();
+        if (last == null || day.isAfter(last)) {
+            boolean consecutive = last != null && last.plusDays(1).equals(day);
+            p.setCurrentStreak(consecutive ? p.getCurrentStreak() + 1 : 1);
+            p.setLongestStreak(Math.max(p.getLongestStreak(), p.getCurrentStreak()));
+            p.setLastAttemptDate(day);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.school.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A set of non-negative longs stored Roaring-style: values are grouped by their
+ * high bits into chunks of 65536, and each chunk is a sorted {@code char[]} while
+ * it holds at most 4096 values and a 8 KB bit array after that. A student who has
+ * seen a few hundred questions costs a few hundred bytes whatever the id range,
+ * and {@link #contains} does not allocate.
+ *
+ * <p>Not thread-safe.
+ */
+public final class CompactBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int BITMAP_WORDS = 1024;
+    private static final byte FORMAT = 1;
+
+    private int[] keys = new int[0];
+    private Object[] containers = new Object[0]; // char[] (sorted, first counts[i] used) or long[BITMAP_WORDS]
+    private int[] counts = new int[0];
+    private int size;
+
+    public boolean contains(long value) {
+        int i = Arrays.binarySearch(keys, 0, size, high(value));
+        if (i < 0) {
+            return false;
+        }
+        char low = low(value);
+        if (containers[i] instanceof long[] bits) {
+            return (bits[low >>> 6] & (1L << low)) != 0;
+        }
+        return Arrays.binarySearch((char[]) containers[i], 0, counts[i], low) >= 0;
+    }
+
+    /** @return true if the value was not already present */
+    public boolean add(long value) {
+        int key = high(value);
+        char low = low(value);
+        int i = Arrays.binarySearch(keys, 0, size, key);
+        if (i < 0) {
+            i = -i - 1;
+            insertContainer(i, key);
+        }
+
+        if (containers[i] instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) != 0) {
+                return false;
+            }
+            bits[low >>> 6] |= mask;
+            counts[i]++;
+            return true;
+        }
+
+        char[] array = (char[]) containers[i];
+        int n = counts[i];
+        int j = Arrays.binarySearch(array, 0, n, low);
+        if (j >= 0) {
+            return false;
+        }
+        j = -j - 1;
+
+        if (n == ARRAY_MAX) {
+            long[] bits = new long[BITMAP_WORDS];
+            for (int k = 0; k < n; k++) {
+                bits[array[k] >>> 6] |= 1L << array[k];
+            }
+            bits[low >>> 6] |= 1L << low;
+            containers[i] = bits;
+            counts[i] = n + 1;
+            return true;
+        }
+
+        if (n == array.length) {
+            array = Arrays.copyOf(array, Math.min(ARRAY_MAX, Math.max(4, n + (n >> 1))));
+            containers[i] = array;
+        }
+        System.arraycopy(array, j, array, j + 1, n - j);
+        array[j] = low;
+        counts[i] = n + 1;
+        return true;
+    }
+
+    /** @return true if the value was present */
+    public boolean remove(long value) {
+        int i = Arrays.binarySearch(keys, 0, size, high(value));
+        if (i < 0) {
+            return false;
+        }
+        char low = low(value);
+
+        if (containers[i] instanceof long[] bits) {
+            long mask = 1L << low;
+            if ((bits[low >>> 6] & mask) == 0) {
+                return false;
+            }
+            bits[low >>> 6] &= ~mask;
+            if (--counts[i] == ARRAY_MAX) {
+                char[] array = new char[ARRAY_MAX];
+                int n = 0;
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    for (long word = bits[w]; word != 0; word &= word - 1) {
+                        array[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                    }
+                }
+                containers[i] = array;
+            }
+        } else {
+            char[] array = (char[]) containers[i];
+            int n = counts[i];
+            int j = Arrays.binarySearch(array, 0, n, low);
+            if (j < 0) {
+                return false;
+            }
+            System.arraycopy(array, j + 1, array, j, n - j - 1);
+            counts[i] = n - 1;
+        }
+
+        if (counts[i] == 0) {
+            removeContainer(i);
+        }
+        return true;
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            long base = (long) keys[i] << 16;
+            if (containers[i] instanceof long[] bits) {
+                for (int w = 0; w < BITMAP_WORDS; w++) {
+                    long word = bits[w];
+                    while (word != 0) {
+                        action.accept(base | ((long) w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            } else {
+                char[] array = (char[]) containers[i];
+                for (int k = 0; k < counts[i]; k++) {
+                    action.accept(base | array[k]);
+                }
+            }
+        }
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(8 + (int) Math.min(cardinality() * 2, 1 << 20));
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(keys[i]);
+                out.writeInt(counts[i]);
+                if (containers[i] instanceof long[] bits) {
+                    for (long word : bits) {
+                        out.writeLong(word);
+                    }
+                } else {
+                    char[] array = (char[]) containers[i];
+                    for (int k = 0; k < counts[i]; k++) {
+                        out.writeChar(array[k]);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static CompactBitmap fromBytes(byte[] data) {
+        CompactBitmap bitmap = new CompactBitmap();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            if (in.readByte() != FORMAT) {
+                throw new IllegalArgumentException("Unknown bitmap format");
+            }
+            int size = in.readInt();
+            bitmap.keys = new int[size];
+            bitmap.containers = new Object[size];
+            bitmap.counts = new int[size];
+            for (int i = 0; i < size; i++) {
+                bitmap.keys[i] = in.readInt();
+                int count = in.readInt();
+                bitmap.counts[i] = count;
+                if (count > ARRAY_MAX) {
+                    long[] bits = new long[BITMAP_WORDS];
+                    for (int w = 0; w < BITMAP_WORDS; w++) {
+                        bits[w] = in.readLong();
+                    }
+                    bitmap.containers[i] = bits;
+                } else {
+                    char[] array = new char[count];
+                    for (int k = 0; k < count; k++) {
+                        array[k] = in.readChar();
+                    }
+                    bitmap.containers[i] = array;
+                }
+            }
+            bitmap.size = size;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated bitmap", e);
+        }
+        return bitmap;
+    }
+
+    private void insertContainer(int i, int key) {
+        if (size == keys.length) {
+            int capacity = Math.max(2, size * 2);
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        System.arraycopy(counts, i, counts, i + 1, size - i);
+        keys[i] = key;
+        containers[i] = new char[4];
+        counts[i] = 0;
+        size++;
+    }
+
+    private void removeContainer(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        System.arraycopy(counts, i + 1, counts, i, size - i - 1);
+        size--;
+        containers[size] = null;
+    }
+
+    private static int high(long value) {
+        return (int) (value >>> 16);
+    }
+
+    private static char low(long value) {
+        return (char) value;
+    }
+}
@@ -0,0 +1,66 @@
+package com.school.utils;
+
+/**
+ * Binary indexed tree of counts over non-negative int buckets. Grows on demand,
+ * so callers do not need to know the largest bucket up front. Not thread-safe.
+ */
+public class FenwickTree {
+
+    private long[] tree;
+    private long total;
+
+    public FenwickTree(int capacity) {
+        tree = new long[Math.max(capacity, 16) + 1];
+    }
+
+    public void add(int bucket, long delta) {
+        if (bucket < 0) {
+            throw new IllegalArgumentException("bucket must be >= 0: " + bucket);
+        }
+        if (bucket + 1 >= tree.length) {
+            grow(bucket + 1);
+        }
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+    }
+
+    /** Sum of counts in buckets {@code 0..bucket} inclusive. */
+    public long prefixSum(int bucket) {
+        long sum = 0;
+        for (int i = Math.min(bucket + 1, tree.length - 1); i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /** Sum of counts in buckets strictly greater than {@code bucket}. */
+    public long countAbove(int bucket) {
+        return total - prefixSum(bucket);
+    }
+
+    public long total() {
+        return total;
+    }
+
+    private void grow(int minSize) {
+        int size = tree.length - 1;
+        while (size < minSize + 1) {
+            size *= 2;
+        }
+        // rebuild from point counts; a Fenwick array cannot simply be copied into a larger one
+        long[] counts = new long[tree.length - 1];
+        for (int b = 0; b < counts.length; b++) {
+            counts[b] = prefixSum(b) - (b == 0 ? 0 : prefixSum(b - 1));
+        }
+        tree = new long[size + 1];
+        for (int b = 0; b < counts.length; b++) {
+            if (counts[b] != 0) {
+                for (int i = b + 1; i < tree.length; i += i & -i) {
+                    tree[i] += counts[b];
+                }
+            }
+        }
+    }
+}
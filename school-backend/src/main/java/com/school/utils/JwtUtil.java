@@ -1,10 +1,11 @@
 package com.school.utils;
 
+import com.school.dto.AuthenticatedUser;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.stereotype.Component;
 
-import java.security.Key;
+import javax.crypto.SecretKey;
 import java.util.Date;
 
 @Component
@@ -13,16 +14,42 @@ public class JwtUtil {
     private static final String SECRET_KEY = "THIS_IS_A_VERY_SECURE_SECRET_KEY_123456";
     private static final long EXPIRATION_TIME = 86400000; // 1 day
 
-    private final Key key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
+    private final SecretKey key = Keys.hmacShaKeyFor(SECRET_KEY.getBytes());
 
-    public String generateToken(String email, String role) {
+    public String generateToken(Long userId, String email, String role) {
 
         return Jwts.builder()
                 .setSubject(email)
+                .claim("uid", userId)
                 .claim("role", role)
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
+
+    /**
+     * Verifies the signature and expiry and returns the principal carried by the
+     * token. Throws {@link JwtException} for invalid, expired or pre-uid tokens.
+     */
+    public AuthenticatedUser parseToken(String token) {
+
+        Claims claims = Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+
+        Object uid = claims.get("uid");
+        if (!(uid instanceof Number) || claims.getExpiration() == null) {
+            throw new MalformedJwtException("Token has no user id or expiry");
+        }
+
+        return new AuthenticatedUser(
+                ((Number) uid).longValue(),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getExpiration().getTime()
+        );
+    }
 }
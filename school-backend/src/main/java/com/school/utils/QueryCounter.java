@@ -0,0 +1,123 @@
+package com.school.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Counts the SQL statements and rows a thread causes while a {@link Scope} is
+ * open. Statements are also grouped by their shape (literals and IN lists
+ * collapsed), so a query repeated once per row of an earlier result shows up
+ * as one statement with a high count.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final LongAdder TOTAL_STATEMENTS = new LongAdder();
+    private static final LongAdder TOTAL_ROWS = new LongAdder();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w.$])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private QueryCounter() {
+    }
+
+    /** Starts counting on this thread; scopes nest and an inner scope's work counts in the outer one too. */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    public static void statement(String sql) {
+        TOTAL_STATEMENTS.increment();
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            String shape = shape(sql);
+            for (Scope s = scope; s != null; s = s.parent) {
+                s.statements++;
+                s.byShape.merge(shape, 1, Integer::sum);
+            }
+        }
+    }
+
+    public static void row() {
+        TOTAL_ROWS.increment();
+        for (Scope s = CURRENT.get(); s != null; s = s.parent) {
+            s.rows++;
+        }
+    }
+
+    public static long totalStatements() {
+        return TOTAL_STATEMENTS.sum();
+    }
+
+    public static long totalRows() {
+        return TOTAL_ROWS.sum();
+    }
+
+    static String shape(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?)");
+        return WHITESPACE.matcher(s.strip()).replaceAll(" ");
+    }
+
+    /** Counts for one unit of work on one thread. Not thread-safe; only its own thread writes to it. */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> byShape = new HashMap<>();
+        private int statements;
+        private long rows;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        public long rows() {
+            return rows;
+        }
+
+        /** How often each statement shape ran. */
+        public Map<String, Integer> statementsByShape() {
+            return Map.copyOf(byShape);
+        }
+
+        /** The statement shape that ran most often, or null if none ran. */
+        public String mostRepeated() {
+            String top = null;
+            int best = 0;
+            for (Map.Entry<String, Integer> e : byShape.entrySet()) {
+                if (e.getValue() > best) {
+                    top = e.getKey();
+                    best = e.getValue();
+                }
+            }
+            return top;
+        }
+
+        public int repeats(String shape) {
+            return shape == null ? 0 : byShape.getOrDefault(shape, 0);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
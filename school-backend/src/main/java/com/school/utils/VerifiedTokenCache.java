@@ -0,0 +1,67 @@
+package com.school.utils;
+
+import com.school.dto.AuthenticatedUser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded LRU of tokens that already passed signature verification, keyed by
+ * the first 128 bits of the token's SHA-256 so raw tokens are never held. An
+ * entry is served only until the token's own expiry.
+ */
+public class VerifiedTokenCache {
+
+    private final Map<TokenKey, AuthenticatedUser> entries;
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(Math.min(maxEntries, 1024), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<TokenKey, AuthenticatedUser> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public AuthenticatedUser get(String token) {
+        TokenKey key = TokenKey.of(token);
+        synchronized (entries) {
+            AuthenticatedUser user = entries.get(key);
+            if (user != null && user.getExpiresAt() <= System.currentTimeMillis()) {
+                entries.remove(key);
+                return null;
+            }
+            return user;
+        }
+    }
+
+    public void put(String token, AuthenticatedUser user) {
+        TokenKey key = TokenKey.of(token);
+        synchronized (entries) {
+            entries.put(key, user);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record TokenKey(long high, long low) {
+
+        static TokenKey of(String token) {
+            try {
+                byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(digest);
+                return new TokenKey(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+    }
+}
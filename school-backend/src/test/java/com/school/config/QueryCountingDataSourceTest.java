@@ -0,0 +1,93 @@
+package com.school.config;
+
+import com.school.utils.QueryCountAssertions;
+import com.school.utils.QueryCounter;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Drives {@link QueryCountingDataSource} over a stub JDBC driver whose queries
+ * each return three rows, and checks the counts and the N+1 assertions.
+ */
+class QueryCountingDataSourceTest {
+
+    private final Connection connection = QueryCountingDataSource.connection(stubConnection());
+
+    @Test
+    void countsStatementsAndRowsPerScope() throws SQLException {
+        try (QueryCounter.Scope queries = QueryCounter.open()) {
+            selectEach(5);
+
+            assertEquals(5, queries.statements());
+            assertEquals(15, queries.rows());
+            assertEquals("SELECT * FROM questions WHERE id = ?", queries.mostRepeated());
+            assertEquals(5, queries.repeats(queries.mostRepeated()));
+        }
+    }
+
+    @Test
+    void flagsRepeatedStatements() {
+        QueryCountAssertions.assertNoRepeatedStatements(5, () -> selectEach(5));
+        assertThrows(AssertionError.class,
+                () -> QueryCountAssertions.assertNoRepeatedStatements(5, () -> selectEach(6)));
+        assertThrows(AssertionError.class, () -> QueryCountAssertions.assertMaxStatements(2, () -> selectEach(3)));
+    }
+
+    private Object selectEach(int n) {
+        try {
+            for (int id = 0; id < n; id++) {
+                try (PreparedStatement ps = connection.prepareStatement("SELECT * FROM questions WHERE id = ?")) {
+                    ps.setLong(1, id);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            rs.getLong(1);
+                        }
+                    }
+                }
+            }
+            return null;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Connection stubConnection() {
+        return stub(Connection.class, (proxy, method, args) ->
+                method.getName().equals("prepareStatement")
+                        ? stub(PreparedStatement.class, (p, m, a) ->
+                                m.getName().equals("executeQuery") ? stubResultSet(3) : defaultValue(m.getReturnType()))
+                        : defaultValue(method.getReturnType()));
+    }
+
+    private static ResultSet stubResultSet(int rows) {
+        int[] left = {rows};
+        return stub(ResultSet.class, (proxy, method, args) ->
+                method.getName().equals("next") ? left[0]-- > 0 : defaultValue(method.getReturnType()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, java.lang.reflect.InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        return null;
+    }
+}
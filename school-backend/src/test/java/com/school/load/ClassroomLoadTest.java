@@ -0,0 +1,113 @@
+package com.school.load;
+
+import com.school.service.QuestionImportService;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * "The whole school starts the quiz at 10:00", without network or an external
+ * database: the app runs on a random port against an embedded PostgreSQL
+ * (real server binaries from the Maven repository), seeded from
+ * {@code questions.json}, and {@link ClassroomSimulation} plays the students.
+ * The table is logged and written to {@code target/load-report-<threads>-<students>.txt};
+ * the build fails when a threshold in {@code load-thresholds.properties} is exceeded.
+ * <p>
+ * {@link PlatformThreadsLoadTest} and {@link VirtualThreadsLoadTest} run the same
+ * morning on each thread model, once per school size in {@code -Dload.matrix}
+ * (student counts, comma separated), or once for {@code -Dload.classrooms} x
+ * {@code -Dload.students} without it.
+ *
+ * <pre>
+ * mvn -Pload test
+ * mvn -Pload test -Dload.classrooms=40 -Dload.students=35 -Dload.think-ms=2000
+ * mvn -Pload test -Dload.thresholds=/path/to/stricter.properties
+ * mvn -Pvthreads,load-matrix test
+ * </pre>
+ *
+ * Excluded from the default {@code mvn test} run by its {@code load} tag.
+ */
+@Slf4j
+@Tag("load")
+abstract class ClassroomLoadTest {
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    /** The thread model under test, as it appears in the log and the report file name. */
+    abstract String threads();
+
+    @ParameterizedTest(name = "{0} students")
+    @MethodSource("schoolSizes")
+    void wholeSchoolStartsAtOnce(int students) throws IOException {
+        questionImportService.importQuestions();
+
+        LoadProfile profile = LoadProfile.fromSystemProperties().withStudents(students);
+        String baseUrl = "http://localhost:" + environment.getProperty("local.server.port");
+        LoadReport report = new ClassroomSimulation(baseUrl, profile).run();
+
+        String summary = report.summary(profile);
+        log.info("Classroom load test on {} threads\n{}", threads(), summary);
+        Path file = Path.of("target", "load-report-" + threads() + "-" + profile.students() + ".txt");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, summary);
+
+        List<String> violations = report.check(thresholds());
+        assertTrue(violations.isEmpty(), () -> "Load thresholds exceeded:\n" + String.join("\n", violations));
+    }
+
+    static List<Integer> schoolSizes() {
+        String matrix = System.getProperty("load.matrix", "");
+        if (matrix.isBlank()) {
+            return List.of(LoadProfile.fromSystemProperties().students());
+        }
+        return Arrays.stream(matrix.split(",")).map(String::trim).map(Integer::valueOf).toList();
+    }
+
+    static void database(DynamicPropertyRegistry registry, EmbeddedPostgres postgres) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+
+    private static Properties thresholds() throws IOException {
+        Properties thresholds = new Properties();
+        String override = System.getProperty("load.thresholds");
+        try (InputStream in = override != null
+                ? Files.newInputStream(Path.of(override))
+                : ClassroomLoadTest.class.getResourceAsStream("/load-thresholds.properties")) {
+            if (in == null) {
+                throw new IOException("load-thresholds.properties not found");
+            }
+            thresholds.load(in);
+        }
+        return thresholds;
+    }
+}
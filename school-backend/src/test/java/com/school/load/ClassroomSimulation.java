@@ -0,0 +1,152 @@
+package com.school.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Walks every simulated student through register, login, {@code /quiz/questions}
+ * and {@code /quiz/submit}, with a think time per question before submitting.
+ * Everything runs on the JDK's async HttpClient and delayed executors, so a few
+ * hundred students waiting on a quiz hold no threads.
+ */
+final class ClassroomSimulation {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final LoadProfile profile;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(30)).build();
+    private final String run = Long.toString(System.currentTimeMillis(), 36); // keeps emails unique across runs
+
+    ClassroomSimulation(String baseUrl, LoadProfile profile) {
+        this.baseUrl = baseUrl;
+        this.profile = profile;
+    }
+
+    LoadReport run() {
+        LoadReport report = new LoadReport();
+        List<CompletableFuture<?>> students = new ArrayList<>(profile.students());
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int c = 0; c < profile.classrooms(); c++) {
+            long classStart = c * profile.classroomStaggerMs();
+            for (int s = 0; s < profile.studentsPerClassroom(); s++) {
+                long arrival = classStart + (profile.arrivalMs() <= 0 ? 0 : random.nextLong(profile.arrivalMs()));
+                String email = "load-" + run + "-c" + c + "-s" + s + "@example.com";
+                students.add(CompletableFuture
+                        .supplyAsync(() -> email, after(arrival))
+                        .thenCompose(e -> student(e, report)));
+            }
+        }
+
+        CompletableFuture.allOf(students.toArray(new CompletableFuture[0])).join();
+        report.finish();
+        return report;
+    }
+
+    private CompletableFuture<Void> student(String email, LoadReport report) {
+        String credentials = "\"email\":\"" + email + "\",\"password\":\"load-test\"";
+        String registration = "{" + credentials + ",\"role\":\"STUDENT\",\"fullName\":\"Load Test\","
+                + "\"grade\":\"6\",\"schoolName\":\"Load School\",\"language\":\"en\"}";
+
+        return send(report, "register", post("/auth/register", null, registration))
+                .thenCompose(r -> r == null
+                        ? skip()
+                        : send(report, "login", post("/auth/login", null, "{" + credentials + "}")))
+                .thenCompose(r -> {
+                    String token = r == null ? null : first(TOKEN, r.body());
+                    if (token == null) {
+                        return skip();
+                    }
+                    String query = "/quiz/questions?level=" + profile.level()
+                            + "&language=en&limit=" + profile.questionsPerQuiz();
+                    return send(report, "questions", get(query, token)).thenCompose(q -> {
+                        if (q == null) {
+                            return skip();
+                        }
+                        String ticket = q.headers().firstValue("X-Quiz-Ticket").orElse("");
+                        String submission = submission(ticket, q.body());
+                        return CompletableFuture.supplyAsync(() -> submission, after(thinkTime()))
+                                .thenCompose(body -> send(report, "submit", post("/quiz/submit", token, body)));
+                    });
+                })
+                .thenApply(r -> null);
+    }
+
+    /** Sends one request and records it; completes with null if it failed, so the student stops there. */
+    private CompletableFuture<HttpResponse<String>> send(LoadReport report, String endpoint, HttpRequest request) {
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .handle((response, error) -> {
+                    boolean ok = error == null && response.statusCode() / 100 == 2;
+                    report.record(endpoint, System.nanoTime() - start, ok);
+                    return ok ? response : null;
+                });
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String token, String json) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+
+    /** Think time for the whole quiz: the per-question mean, give or take half, for every question. */
+    private long thinkTime() {
+        long mean = profile.thinkMsPerQuestion() * profile.questionsPerQuiz();
+        return mean <= 0 ? 0 : mean / 2 + ThreadLocalRandom.current().nextLong(mean + 1);
+    }
+
+    private static String submission(String ticket, String questionsJson) {
+        StringBuilder body = new StringBuilder("{\"ticket\":\"").append(ticket).append("\",\"answers\":[");
+        Matcher m = ID.matcher(questionsJson);
+        boolean first = true;
+        while (m.find()) {
+            if (!first) {
+                body.append(',');
+            }
+            int option = ThreadLocalRandom.current().nextInt(4);
+            body.append("{\"questionId\":").append(m.group(1)).append(",\"selectedOption\":").append(option).append('}');
+            first = false;
+        }
+        return body.append("]}").toString();
+    }
+
+    private static String first(Pattern pattern, String text) {
+        Matcher m = pattern.matcher(text);
+        return m.find() ? m.group(1) : null;
+    }
+
+    private static Executor after(long millis) {
+        return CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private static CompletableFuture<HttpResponse<String>> skip() {
+        return CompletableFuture.completedFuture(null);
+    }
+}
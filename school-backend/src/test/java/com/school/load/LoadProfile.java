@@ -0,0 +1,44 @@
+package com.school.load;
+
+/**
+ * Shape of a simulated school morning, read from {@code -Dload.*} system
+ * properties: {@code classrooms} classes of {@code students} each start within
+ * {@code stagger-ms} of each other, and a class's students open the quiz within
+ * {@code arrival-ms} of their teacher saying "go".
+ */
+record LoadProfile(
+        int classrooms,
+        int studentsPerClassroom,
+        long classroomStaggerMs,
+        long arrivalMs,
+        long thinkMsPerQuestion,
+        int questionsPerQuiz,
+        String level
+) {
+
+    static LoadProfile fromSystemProperties() {
+        return new LoadProfile(
+                Integer.getInteger("load.classrooms", 10),
+                Integer.getInteger("load.students", 30),
+                Long.getLong("load.stagger-ms", 0),
+                Long.getLong("load.arrival-ms", 5_000),
+                Long.getLong("load.think-ms", 500),
+                Integer.getInteger("load.questions", 10),
+                System.getProperty("load.level", "beginner")
+        );
+    }
+
+    /**
+     * The same morning for a school of about {@code students}: classes keep their
+     * size and the number of classrooms is rounded up.
+     */
+    LoadProfile withStudents(int students) {
+        int classes = (students + studentsPerClassroom - 1) / studentsPerClassroom;
+        return new LoadProfile(classes, studentsPerClassroom, classroomStaggerMs, arrivalMs, thinkMsPerQuestion,
+                questionsPerQuiz, level);
+    }
+
+    int students() {
+        return classrooms * studentsPerClassroom;
+    }
+}
@@ -0,0 +1,114 @@
+package com.school.load;
+
+import com.school.utils.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency, throughput and error counts per step of the student flow, and the
+ * check of those numbers against {@code load-thresholds.properties}.
+ */
+final class LoadReport {
+
+    static final List<String> ENDPOINTS = List.of("register", "login", "questions", "submit");
+
+    private final Map<String, Step> steps = new LinkedHashMap<>();
+    private final long began = System.nanoTime();
+    private volatile long finished;
+
+    LoadReport() {
+        for (String endpoint : ENDPOINTS) {
+            steps.put(endpoint, new Step());
+        }
+    }
+
+    void record(String endpoint, long nanos, boolean ok) {
+        Step step = steps.get(endpoint);
+        step.latency.record(nanos);
+        (ok ? step.ok : step.errors).increment();
+    }
+
+    void finish() {
+        finished = System.nanoTime();
+    }
+
+    /** The per-endpoint table, one line per step of the student flow. */
+    String summary(LoadProfile profile) {
+        double seconds = seconds();
+        Formatter out = new Formatter();
+        out.format("%d classrooms x %d students, %.1fs%n", profile.classrooms(), profile.studentsPerClassroom(), seconds);
+        out.format("%-10s %9s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+        steps.forEach((endpoint, s) -> {
+            long requests = s.latency.count();
+            out.format("%-10s %9d %9.1f %9.1f %9.1f %9.1f %9.1f %7.2f%%%n",
+                    endpoint,
+                    requests,
+                    requests / seconds,
+                    millis(s.latency.percentile(0.50)),
+                    millis(s.latency.percentile(0.95)),
+                    millis(s.latency.percentile(0.99)),
+                    millis(s.latency.max()),
+                    errorRate(s) * 100);
+        });
+        return out.toString();
+    }
+
+    /**
+     * Thresholds are {@code <endpoint>.<metric>=<limit>}, with {@code *} matching
+     * every endpoint. Metrics: {@code p50-ms}, {@code p95-ms}, {@code p99-ms},
+     * {@code error-rate} (0..1) and {@code min-rps}.
+     *
+     * @return one line per exceeded threshold
+     */
+    List<String> check(Properties thresholds) {
+        List<String> violations = new ArrayList<>();
+        double seconds = seconds();
+        steps.forEach((endpoint, s) -> {
+            check(violations, thresholds, endpoint, "p50-ms", millis(s.latency.percentile(0.50)), true);
+            check(violations, thresholds, endpoint, "p95-ms", millis(s.latency.percentile(0.95)), true);
+            check(violations, thresholds, endpoint, "p99-ms", millis(s.latency.percentile(0.99)), true);
+            check(violations, thresholds, endpoint, "error-rate", errorRate(s), true);
+            check(violations, thresholds, endpoint, "min-rps", s.latency.count() / seconds, false);
+        });
+        return violations;
+    }
+
+    private static void check(List<String> violations, Properties thresholds, String endpoint, String metric,
+                              double actual, boolean upperBound) {
+        String limit = thresholds.getProperty(endpoint + "." + metric, thresholds.getProperty("*." + metric));
+        if (limit == null) {
+            return;
+        }
+        double bound = Double.parseDouble(limit.trim());
+        if (upperBound ? actual > bound : actual < bound) {
+            violations.add(String.format("%s %s = %.3f, limit %s", endpoint, metric, actual, limit.trim()));
+        }
+    }
+
+    private double seconds() {
+        long end = finished == 0 ? System.nanoTime() : finished;
+        return Math.max(1e-9, (end - began) / 1e9);
+    }
+
+    private static double errorRate(Step s) {
+        long total = s.ok.sum() + s.errors.sum();
+        return total == 0 ? 0 : (double) s.errors.sum() / total;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    private static final class Step {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder ok = new LongAdder();
+        final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,39 @@
+package com.school.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * {@link ClassroomLoadTest} on Tomcat's pool of platform worker threads, the
+ * default configuration. Virtual threads stay off even when a Spring profile
+ * would turn them on.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "quiz.ticket.secret=load-test",
+        "spring.threads.virtual.enabled=false"
+})
+class PlatformThreadsLoadTest extends ClassroomLoadTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        database(registry, POSTGRES);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Override
+    String threads() {
+        return "platform";
+    }
+}
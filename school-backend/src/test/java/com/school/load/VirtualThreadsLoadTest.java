@@ -0,0 +1,43 @@
+package com.school.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+
+/**
+ * {@link ClassroomLoadTest} with the {@code vthreads} profile: requests on
+ * virtual threads, database access bounded as in
+ * {@code application-vthreads.properties}. Skipped below Java 21.
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+@ActiveProfiles("vthreads")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "quiz.ticket.secret=load-test"
+})
+class VirtualThreadsLoadTest extends ClassroomLoadTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        database(registry, POSTGRES);
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Override
+    String threads() {
+        return "virtual";
+    }
+}
@@ -0,0 +1,60 @@
+package com.school.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Near-duplicate matching in {@link NearDuplicateDetector} on reworded questions,
+ * re-imports and level boundaries.
+ */
+class NearDuplicateDetectorTest {
+
+    private static final List<String> OPTIONS = List.of("Ecology", "Meteorology", "Astronomy", "Geology");
+
+    private final NearDuplicateDetector detector = new NearDuplicateDetector(List.of(), 0.7);
+
+    @Test
+    void rewordedQuestionWithShuffledOptionsMatches() {
+        add("pack.json[0]", "h0", "basic", "What is the study of weather called?", OPTIONS);
+
+        NearDuplicateDetector.Match match = detector.find(candidate("pack.json[1]", "h1", "basic",
+                "What is the study of the weather called?", List.of("Geology", "Ecology", "Meteorology", "Astronomy")));
+
+        assertNotNull(match);
+        assertEquals("pack.json[0]", match.matched());
+        assertEquals("h0", match.matchedHash());
+    }
+
+    @Test
+    void differentQuestionsAndOtherLevelsDoNotMatch() {
+        add("pack.json[0]", "h0", "basic", "What is the study of weather called?", OPTIONS);
+
+        assertNull(detector.find(candidate("pack.json[1]", "h1", "basic",
+                "Which planet is closest to the Sun?", List.of("Mercury", "Venus", "Earth", "Mars"))));
+        assertNull(detector.find(candidate("pack.json[2]", "h2", "advanced",
+                "What is the study of weather called?", OPTIONS)));
+    }
+
+    @Test
+    void knownContentHashIsAnUpdateNotADuplicate() {
+        add("pack.json[0]", "h0", "basic", "What is the study of weather called?", OPTIONS);
+        add("pack.json[1]", "h1", "basic", "What is the study of the weather called?", OPTIONS);
+
+        assertNull(detector.find(candidate("again.json[0]", "h1", "basic",
+                "What is the study of the weather called?", OPTIONS)));
+    }
+
+    private void add(String label, String hash, String level, String question, List<String> options) {
+        detector.add(candidate(label, hash, level, question, options));
+    }
+
+    private NearDuplicateDetector.Candidate candidate(String label, String hash, String level, String question,
+                                                      List<String> options) {
+        return detector.candidate(label, hash, level, question, options, null, null);
+    }
+}
@@ -0,0 +1,26 @@
+package com.school.service;
+
+import org.junit.jupiter.api.Test;
+
+import static com.school.service.QuizHarness.question;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The answer table of {@link QuestionBankCache}: answers that do not index an
+ * option never grade as another option.
+ */
+class QuestionBankCacheTest {
+
+    @Test
+    void answersOutsideTheOptionsAreNotGradable() {
+        QuestionBankCache cache = QuizHarness.cache(
+                question(1, 3), question(2, 255), question(3, 4), question(4, -2), question(5, null));
+
+        assertEquals(3, cache.correctAnswer(1));
+        assertEquals(QuestionBankCache.NO_ANSWER, cache.correctAnswer(2));
+        assertEquals(QuestionBankCache.NO_ANSWER, cache.correctAnswer(3));
+        assertEquals(QuestionBankCache.NO_ANSWER, cache.correctAnswer(4));
+        assertEquals(QuestionBankCache.NO_ANSWER, cache.correctAnswer(5));
+        assertEquals(QuestionBankCache.UNKNOWN, cache.correctAnswer(6));
+    }
+}
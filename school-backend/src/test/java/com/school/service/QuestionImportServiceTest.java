@@ -0,0 +1,122 @@
+package com.school.service;
+
+import com.school.dto.QuestionImportReport;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Importing packs into a real (embedded) PostgreSQL with
+ * {@link QuestionImportService#importStream}. Every test uses questions of its
+ * own, so the bank the tests share does not matter.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "quiz.ticket.secret=import-test"
+})
+class QuestionImportServiceTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @Test
+    void badElementsAreSkippedAndTheRestImported() {
+        String pack = "[" + question("Which planet is known as the red planet", "Mars", "Venus") + ","
+                + "{\"question\": \"How many legs does a spider have\", \"correctAnswer\": \"eight\", \"level\": \"beginner\"},"
+                + "42,"
+                + question("What gas do plants take in from the air", "Carbon dioxide", "Oxygen") + "]";
+
+        QuestionImportReport report = importPack(pack, QuestionImportService.NearDuplicates.REPORT);
+
+        assertEquals(4, report.getRead());
+        assertEquals(2, report.getWritten());
+        assertEquals(2, report.getRejected());
+        assertTrue(report.getErrors().get(0).startsWith("pack.json[1]: "), report.getErrors().get(0));
+        assertTrue(report.getErrors().get(1).startsWith("pack.json[2]: "), report.getErrors().get(1));
+    }
+
+    @Test
+    void brokenJsonKeepsWhatCameBeforeIt() {
+        String pack = "[" + question("Which organ pumps blood around the body", "Heart", "Lungs") + ", {\"question\": ";
+
+        QuestionImportReport report = importPack(pack, QuestionImportService.NearDuplicates.REPORT);
+
+        assertEquals(1, report.getWritten());
+        assertEquals(1, report.getRejected());
+    }
+
+    @Test
+    void nearDuplicateLaterInTheSameFileMergesIntoTheEarlierOne() {
+        String id = UUID.randomUUID().toString();
+        String kept = "Which organ of the human body pumps blood through the arteries and veins (" + id + ")?";
+        // differs only by a stop word: another content hash, but the same shingles
+        String reworded = "Which organ of the human body pumps the blood through the arteries and veins (" + id + ")?";
+        String pack = "["
+                + "{\"question\": \"" + kept + "\", \"options\": [\"Heart\", \"Liver\"], "
+                + "\"correctAnswer\": 0, \"level\": \"beginner\"},"
+                + "{\"question\": \"" + reworded + "\", \"options\": [\"Heart\", \"Liver\"], "
+                + "\"correctAnswer\": 0, \"level\": \"beginner\", \"explanation\": \"The heart is a muscular pump.\"}"
+                + "]";
+
+        QuestionImportReport report = importPack(pack, QuestionImportService.NearDuplicates.MERGE);
+
+        assertEquals(1, report.getWritten());
+        assertEquals(1, report.getNearDuplicates());
+        assertEquals(1, report.getMerged());
+        assertEquals("pack.json[0]", report.getDuplicates().get(0).getMatches());
+        assertEquals(List.of("The heart is a muscular pump."), jdbcTemplate.queryForList(
+                "SELECT explanation_en FROM questions WHERE question_en IN (?, ?)", String.class, kept, reworded));
+    }
+
+    private QuestionImportReport importPack(String pack, QuestionImportService.NearDuplicates mode) {
+        return questionImportService.importStream(
+                new ByteArrayInputStream(pack.getBytes(StandardCharsets.UTF_8)), "pack.json", mode);
+    }
+
+    /** A beginner question whose first option is correct, made unique to this run. */
+    static String question(String text, String right, String wrong) {
+        return "{\"question\": \"" + text + " (" + UUID.randomUUID() + ")?\", "
+                + "\"options\": [\"" + right + "\", \"" + wrong + "\"], "
+                + "\"correctAnswer\": 0, \"level\": \"beginner\"}";
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.school.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.entity.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tokenization of Tamil and English text and ranking in {@link QuestionSearchIndex}.
+ */
+class QuestionSearchIndexTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private QuestionSearchIndex index;
+
+    @BeforeEach
+    void buildIndex() throws Exception {
+        List<Question> questions = List.of(
+                question(1, "beginner", "Which planet is closest to the Sun?", List.of("Mercury", "Venus"),
+                        "Mercury orbits nearest.", "சூரியனுக்கு மிக அருகில் உள்ள கோள் எது?", List.of("புதன்", "வெள்ளி"),
+                        "புதன் சூரியனை மிக அருகில் சுற்றுகிறது."),
+                question(2, "advanced", "What do plants need for photosynthesis?", List.of("Light", "Salt"),
+                        "Leaves capture light from the Sun.", "ஒளிச்சேர்க்கைக்கு தாவரங்களுக்கு என்ன தேவை?",
+                        List.of("சூரிய ஒளி", "உப்பு"), "இலைகள் சூரிய ஒளியைப் பிடிக்கின்றன."),
+                question(3, "beginner", "How many days are in a week?", List.of("Seven", "Five"),
+                        null, "ஒரு வாரத்தில் எத்தனை நாட்கள்?", List.of("ஏழு", "ஐந்து"), "பள்ளியில் கற்றது."),
+                question(4, "basic", "Who wrote the Thirukkural?", List.of("Thiruvalluvar", "Kambar"),
+                        null, null, null, null)
+        );
+        QuestionBankCache cache = new QuestionBankCache(null, null, OBJECT_MAPPER);
+        cache.load(questions);
+        index = QuestionSearchIndex.build(cache.questions());
+    }
+
+    @Test
+    void tamilVowelSignsAndPulliStayInsideWords() {
+        assertEquals(List.of("ஒளிச்சேர்க்கைக்கு", "தாவரங்களுக்கு"),
+                List.copyOf(QuestionSearchIndex.terms("ஒளிச்சேர்க்கைக்கு, தாவரங்களுக்கு!")));
+        // the same word typed with a zero-width non-joiner
+        assertEquals(List.of("பள்ளியில்"), List.copyOf(QuestionSearchIndex.terms("பள்ளி\u200Cயில்")));
+    }
+
+    @Test
+    void englishIsCaseFoldedWithoutStopWords() {
+        assertEquals(List.of("closest", "sun"), List.copyOf(QuestionSearchIndex.terms("Closest to THE Sun")));
+    }
+
+    @Test
+    void questionTextOutranksExplanation() {
+        List<QuestionSearchIndex.Match> matches = index.search("sun", "en", null, 10).matches();
+
+        assertEquals(List.of(1L, 2L), ids(matches));
+        assertTrue(matches.get(0).score() > matches.get(1).score());
+    }
+
+    @Test
+    void tamilStemFindsSuffixedForms() {
+        // சூரிய matches சூரியனுக்கு and சூரியனை by prefix, and சூரிய as a whole word
+        assertEquals(Set.of(1L, 2L), Set.copyOf(ids(index.search("சூரிய", "ta", null, 10).matches())));
+        assertEquals(List.of(3L), ids(index.search("பள்ளி", "ta", null, 10).matches()));
+    }
+
+    @Test
+    void moreMatchedTermsRankFirstAndLevelFilters() {
+        List<QuestionSearchIndex.Match> matches = index.search("sun light", "en", null, 10).matches();
+        assertEquals(2L, matches.get(0).question().getId());
+        assertEquals(2, matches.get(0).matchedTerms());
+
+        assertEquals(List.of(1L), ids(index.search("sun", "en", "Beginner", 10).matches()));
+        assertEquals(List.of(), ids(index.search("sun", "en", "unknown", 10).matches()));
+        assertEquals(List.of(), ids(index.search("Thiruvalluvar", "ta", null, 10).matches()));
+    }
+
+    private static List<Long> ids(List<QuestionSearchIndex.Match> matches) {
+        return matches.stream().map(m -> m.question().getId()).toList();
+    }
+
+    private static Question question(long id, String level, String en, List<String> optionsEn, String explanationEn,
+                                     String ta, List<String> optionsTa, String explanationTa) throws Exception {
+        return Question.builder()
+                .id(id)
+                .level(level)
+                .questionEn(en)
+                .questionTa(ta)
+                .optionsEn(optionsEn == null ? null : OBJECT_MAPPER.writeValueAsString(optionsEn))
+                .optionsTa(optionsTa == null ? null : OBJECT_MAPPER.writeValueAsString(optionsTa))
+                .explanationEn(explanationEn)
+                .explanationTa(explanationTa)
+                .correctAnswer(0)
+                .build();
+    }
+}
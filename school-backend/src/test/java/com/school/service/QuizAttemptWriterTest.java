@@ -0,0 +1,140 @@
+package com.school.service;
+
+import com.school.entity.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Write-behind flushing in {@link QuizAttemptWriter} when the database fails:
+ * failed batches are retried, not dropped, and attempts commit together with
+ * their progress rows.
+ */
+class QuizAttemptWriterTest {
+
+    private static final String POISON = "poison";
+
+    private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+    private final List<Long> progress = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger outage = new AtomicInteger();
+    private final AtomicInteger progressOutage = new AtomicInteger();
+
+    private QuizAttemptWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        // fails while an outage is left, and always for a row of level POISON
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (outage.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                for (Object[] row : batchArgs) {
+                    if (POISON.equals(row[1])) {
+                        throw new IllegalStateException("bad row");
+                    }
+                }
+                for (Object[] row : batchArgs) {
+                    written.add((String) row[1]);
+                }
+                return new int[batchArgs.size()];
+            }
+        };
+        // the progress upsert runs in the flush transaction, after the attempt rows
+        UserProgressService userProgressService = new UserProgressService(null, null, null) {
+            @Override
+            public void recordAll(List<QuizAttempt> attempts) {
+                if (progressOutage.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    throw new IllegalStateException("lock timeout");
+                }
+                attempts.forEach(a -> progress.add(a.getUserId()));
+            }
+        };
+
+        writer = new QuizAttemptWriter(null, userProgressService, jdbcTemplate, QuizHarness.transactions());
+        ReflectionTestUtils.setField(writer, "enabled", true);
+        ReflectionTestUtils.setField(writer, "queueCapacity", 100);
+        ReflectionTestUtils.setField(writer, "batchSize", 10);
+        ReflectionTestUtils.setField(writer, "flushIntervalMs", 5L);
+        ReflectionTestUtils.setField(writer, "offerTimeoutMs", 100L);
+        ReflectionTestUtils.setField(writer, "retryInitialMs", 1L);
+        ReflectionTestUtils.setField(writer, "retryMaxMs", 5L);
+    }
+
+    @Test
+    void failedFlushIsRetriedUntilItCommits() throws InterruptedException {
+        outage.set(5);
+        writer.start();
+        for (int i = 0; i < 3; i++) {
+            writer.write(attempt("a" + i));
+        }
+        awaitWritten(3);
+        writer.stop();
+
+        assertEquals(Set.of("a0", "a1", "a2"), Set.copyOf(written));
+        assertEquals(3, writer.stats().getFlushed());
+        assertEquals(0, writer.stats().getFailed());
+        assertTrue(writer.stats().getRetries() > 0);
+    }
+
+    @Test
+    void badRowDoesNotHoldBackTheRest() throws InterruptedException {
+        writer.start();
+        writer.write(attempt("a0"));
+        writer.write(attempt("a1"));
+        writer.write(attempt(POISON));
+
+        awaitWritten(2);
+        assertEquals(Set.of("a0", "a1"), Set.copyOf(written));
+
+        // the bad row is still being retried, and only given up at shutdown
+        writer.stop();
+        assertEquals(2, writer.stats().getFlushed());
+        assertEquals(1, writer.stats().getFailed());
+    }
+
+    @Test
+    void failedProgressUpdateFailsTheWholeFlush() throws InterruptedException {
+        progressOutage.set(2);
+        writer.start();
+        writer.write(attempt("a0", 1L));
+        writer.write(attempt("a1", 2L));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (progress.size() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        writer.stop();
+
+        // the batch only counts as flushed once its progress rows went through with it
+        assertEquals(List.of(1L, 2L), progress);
+        assertEquals(2, writer.stats().getFlushed());
+        assertTrue(writer.stats().getRetries() > 0);
+    }
+
+    private void awaitWritten(int rows) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (written.size() < rows && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static QuizAttempt attempt(String level) {
+        return attempt(level, null);
+    }
+
+    private static QuizAttempt attempt(String level, Long userId) {
+        return QuizAttempt.builder().userId(userId).level(level).totalQuestions(10).correctAnswers(5).score(50).build();
+    }
+}
@@ -0,0 +1,179 @@
+package com.school.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.AnswerDTO;
+import com.school.entity.Question;
+import com.school.entity.QuizAttempt;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A {@link QuizService} wired to in-memory stand-ins for everything that
+ * touches the database, for tests of grading and submission. The stand-ins
+ * record what reached them: consumed tickets, written attempts, stored client
+ * keys, leaderboard points, answer statistics and ability updates. Setting
+ * {@code failWrites} makes the attempt write fail, and the service's transactions
+ * roll back consumed tickets.
+ * <p>
+ * This is the one place that knows the service constructors; tests build on it
+ * instead of wiring their own.
+ */
+final class QuizHarness {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    final Set<String> usedTickets = new HashSet<>();
+    final Set<String> storedKeys = new HashSet<>();
+    final List<QuizAttempt> written = new ArrayList<>();
+    final List<String> answered = new ArrayList<>(); // "question:option:right"
+    final List<String> abilityUpdates = new ArrayList<>(); // "question:right"
+    int points;
+    boolean failWrites;
+
+    final QuestionBankCache cache;
+    final QuizTicketService tickets;
+    final QuizAttemptWriter writer;
+    final QuizService quizService;
+
+    QuizHarness(Question... bank) {
+        cache = cache(bank);
+
+        // consume and consumeAll stand in for the unique key on used_quiz_tickets
+        tickets = new QuizTicketService("test", 60, 120, null) {
+            @Override
+            public void consume(QuizTicket ticket, Long userId, long expiresAt) {
+                if (!usedTickets.add(ticket.getId())) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Quiz ticket has already been submitted");
+                }
+            }
+
+            @Override
+            public Set<String> consumeAll(List<QuizTicket> consumed, Long userId, long[] expiresAt) {
+                Set<String> fresh = new HashSet<>();
+                for (QuizTicket t : consumed) {
+                    if (usedTickets.add(t.getId())) {
+                        fresh.add(t.getId());
+                    }
+                }
+                return fresh;
+            }
+        };
+        writer = new QuizAttemptWriter(null, null, null, null) {
+            @Override
+            public void write(QuizAttempt attempt) {
+                if (failWrites) {
+                    throw new IllegalStateException("database unavailable");
+                }
+                written.add(attempt);
+            }
+
+            @Override
+            public Set<String> writeOnce(Long userId, List<QuizAttempt> attempts) {
+                Set<String> inserted = new HashSet<>();
+                for (QuizAttempt a : attempts) {
+                    if (storedKeys.add(a.getClientKey())) {
+                        inserted.add(a.getClientKey());
+                        written.add(a);
+                    }
+                }
+                return inserted;
+            }
+        };
+        LeaderboardService leaderboard = new LeaderboardService(null, null) {
+            @Override
+            public void record(Long userId, int correct) {
+                points += correct;
+            }
+        };
+        AdaptiveDifficultyService adaptive = new AdaptiveDifficultyService(null, null, null, null, 0.6) {
+            @Override
+            public void record(Long userId, long questionId, boolean correct) {
+                abilityUpdates.add(questionId + ":" + correct);
+            }
+        };
+        QuestionStatsService stats = new QuestionStatsService(null, cache, null) {
+            @Override
+            public void answered(long questionId, int selectedOption, boolean correct, int restPercent) {
+                answered.add(questionId + ":" + selectedOption + ":" + correct);
+            }
+        };
+        // the stored-key lookup of offline sync
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+                return (List<T>) List.copyOf(storedKeys);
+            }
+        };
+
+        // rolls back consumed tickets when the callback fails
+        TransactionTemplate transactions = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                Set<String> before = Set.copyOf(usedTickets);
+                try {
+                    return action.doInTransaction(null);
+                } catch (RuntimeException e) {
+                    usedTickets.retainAll(before);
+                    throw e;
+                }
+            }
+        };
+
+        quizService = new QuizService(null, cache, writer, leaderboard, tickets, adaptive, stats, null,
+                jdbcTemplate, transactions);
+        ReflectionTestUtils.setField(quizService, "maxSyncAttempts", 500);
+        ReflectionTestUtils.setField(quizService, "ticketMaxAgeDays", 14L);
+    }
+
+    /** A beginner question with English options A to D. */
+    static Question question(long id, Integer correct) {
+        try {
+            return Question.builder()
+                    .id(id)
+                    .level("beginner")
+                    .questionEn("Question " + id)
+                    .optionsEn(OBJECT_MAPPER.writeValueAsString(List.of("A", "B", "C", "D")))
+                    .correctAnswer(correct)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static AnswerDTO answer(long questionId, Integer selected) {
+        AnswerDTO answer = new AnswerDTO();
+        answer.setQuestionId(questionId);
+        answer.setSelectedOption(selected);
+        return answer;
+    }
+
+    static QuestionBankCache cache(Question... bank) {
+        QuestionBankCache cache = new QuestionBankCache(null, null, OBJECT_MAPPER);
+        cache.load(List.of(bank));
+        return cache;
+    }
+
+    /** Runs every callback directly, as if in a transaction that always commits. */
+    static TransactionTemplate transactions() {
+        return new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+    }
+}
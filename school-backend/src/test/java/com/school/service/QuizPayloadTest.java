@@ -0,0 +1,74 @@
+package com.school.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.QuestionJsonDTO;
+import com.school.entity.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The pre-encoded {@code /quiz/questions} payload of {@link QuestionBankCache}
+ * carries what per-request option parsing used to produce. Its allocation is
+ * measured by {@code QuizPayloadBenchmark} in school-benchmarks.
+ */
+class QuizPayloadTest {
+
+    private static final int LIMIT = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<Long, Question> questions = new HashMap<>();
+    private QuestionBankCache cache;
+
+    @BeforeEach
+    void loadFixtures() throws Exception {
+        try (InputStream is = getClass().getClassLoader().getResourceAsStream("questions.json")) {
+            List<QuestionJsonDTO> dtos = objectMapper.readValue(is, new TypeReference<List<QuestionJsonDTO>>() {});
+            long id = 1;
+            for (QuestionJsonDTO dto : dtos) {
+                questions.put(id, Question.builder()
+                        .id(id++)
+                        .questionEn(dto.getQuestionEn())
+                        .questionTa(dto.getQuestionTa())
+                        .optionsEn(objectMapper.writeValueAsString(dto.getOptionsEn()))
+                        .optionsTa(objectMapper.writeValueAsString(dto.getOptionsTa()))
+                        .correctAnswer(dto.getCorrectAnswer())
+                        .level(dto.getLevel())
+                        .build());
+            }
+        }
+        cache = new QuestionBankCache(null, null, objectMapper);
+        cache.load(List.copyOf(questions.values()));
+    }
+
+    @Test
+    void drawnPayloadMatchesTheStoredQuestions() throws Exception {
+        JsonNode payload = objectMapper.readTree(cache.drawJson("beginner", "ta", LIMIT));
+
+        assertTrue(payload.isArray());
+        assertEquals(LIMIT, payload.size());
+        Set<Long> ids = new HashSet<>();
+        for (JsonNode item : payload) {
+            Question q = questions.get(item.get("id").asLong());
+            assertNotNull(q);
+            assertTrue(ids.add(q.getId()), "a question is drawn at most once");
+            assertEquals("beginner", q.getLevel());
+            assertEquals(q.getQuestionTa(), item.get("question").asText());
+            assertEquals(objectMapper.readTree(q.getOptionsTa()), item.get("options"));
+            assertFalse(item.has("correctAnswer"), "the answer key is never sent");
+        }
+    }
+}
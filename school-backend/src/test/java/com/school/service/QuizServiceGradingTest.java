@@ -0,0 +1,77 @@
+package com.school.service;
+
+import com.school.dto.AnswerDTO;
+import com.school.dto.QuizResultResponse;
+import com.school.dto.QuizSubmitRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.school.service.QuizHarness.answer;
+import static com.school.service.QuizHarness.question;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Grading in {@link QuizService#submitQuiz}: every question on the ticket counts
+ * towards the score, unanswered and out-of-range answers score as wrong, and
+ * only chosen options reach the answer statistics and ability estimates.
+ */
+class QuizServiceGradingTest {
+
+    private static final long USER = 7L;
+
+    private QuizHarness harness;
+
+    @BeforeEach
+    void setUp() {
+        harness = new QuizHarness(question(1, 0), question(2, 1), question(3, 2), question(4, 3));
+    }
+
+    @Test
+    void validAnswersAreGraded() {
+        QuizResultResponse result = submit(answer(1, 0), answer(2, 1), answer(3, 0), answer(4, 3));
+
+        assertEquals(4, result.getTotalQuestions());
+        assertEquals(3, result.getCorrectAnswers());
+        assertEquals(75, result.getScore());
+        assertEquals(List.of("1:0:true", "2:1:true", "3:0:false", "4:3:true"), harness.answered);
+        assertEquals(List.of("1:true", "2:true", "3:false", "4:true"), harness.abilityUpdates);
+    }
+
+    @Test
+    void unansweredQuestionsScoreAsWrong() {
+        QuizResultResponse result = submit(answer(1, 0), answer(2, null));
+
+        // questions 3 and 4 were never sent, question 2 was sent without a choice
+        assertEquals(4, result.getTotalQuestions());
+        assertEquals(1, result.getCorrectAnswers());
+        assertEquals(25, result.getScore());
+        assertEquals(List.of("1:0:true"), harness.answered);
+        assertEquals(List.of("1:true"), harness.abilityUpdates);
+    }
+
+    @Test
+    void outOfRangeAnswersAreWrong() {
+        QuizResultResponse result = submit(answer(1, 9), answer(2, -1), answer(3, 2));
+
+        assertEquals(1, result.getCorrectAnswers());
+        assertEquals(25, result.getScore());
+        assertEquals(List.of("1:9:false", "2:-1:false", "3:2:true"), harness.answered);
+    }
+
+    @Test
+    void firstAnswerToAQuestionStands() {
+        QuizResultResponse result = submit(answer(1, null), answer(1, 0), answer(2, 0), answer(2, 1));
+
+        assertEquals(0, result.getCorrectAnswers());
+        assertEquals(List.of("2:0:false"), harness.answered);
+    }
+
+    private QuizResultResponse submit(AnswerDTO... answers) {
+        QuizSubmitRequest request = new QuizSubmitRequest();
+        request.setTicket(harness.tickets.issue(USER, "beginner", "en", new long[]{1, 2, 3, 4}));
+        request.setAnswers(List.of(answers));
+        return harness.quizService.submitQuiz(USER, request);
+    }
+}
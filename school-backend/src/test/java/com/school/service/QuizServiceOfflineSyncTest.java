@@ -0,0 +1,111 @@
+package com.school.service;
+
+import com.school.dto.AnswerDTO;
+import com.school.dto.OfflineAttemptRequest;
+import com.school.dto.OfflineSyncResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.school.service.QuizHarness.answer;
+import static com.school.service.QuizHarness.question;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Offline uploads in {@link QuizService#syncOffline}: attempts are bound to the
+ * ticket of a quiz drawn online, and a ticket earns points once, whatever the
+ * client key.
+ */
+class QuizServiceOfflineSyncTest {
+
+    private static final long USER = 7L;
+
+    private QuizHarness harness;
+    private QuizTicketService tickets;
+    private QuizService quizService;
+
+    @BeforeEach
+    void setUp() {
+        harness = new QuizHarness(question(1, 0), question(2, 1), question(3, 2), question(4, 3));
+        tickets = harness.tickets;
+        quizService = harness.quizService;
+    }
+
+    @Test
+    void replayingATicketUnderANewKeyEarnsNothing() {
+        String ticket = tickets.issue(USER, "beginner", "en", new long[]{1, 2, 3});
+
+        OfflineSyncResponse first = quizService.syncOffline(USER, List.of(attempt("k1", ticket, 1, 0, 2, 1)));
+        assertEquals(OfflineSyncResponse.Status.CREATED, first.getResults().get(0).getStatus());
+        assertEquals(2, harness.points);
+
+        OfflineSyncResponse replay = quizService.syncOffline(USER, List.of(attempt("k2", ticket, 1, 0, 2, 1)));
+        assertEquals(OfflineSyncResponse.Status.REJECTED, replay.getResults().get(0).getStatus());
+        assertEquals("Quiz ticket has already been submitted", replay.getResults().get(0).getMessage());
+        assertEquals(2, harness.points);
+        assertEquals(1, harness.written.size());
+    }
+
+    @Test
+    void retryingTheSameKeyIsADuplicate() {
+        String ticket = tickets.issue(USER, "beginner", "en", new long[]{1, 2, 3});
+        quizService.syncOffline(USER, List.of(attempt("k1", ticket, 1, 0)));
+
+        OfflineSyncResponse retry = quizService.syncOffline(USER, List.of(attempt("k1", ticket, 1, 0)));
+
+        assertEquals(1, retry.getDuplicates());
+        assertEquals(1, harness.points);
+        assertEquals(1, harness.written.size());
+    }
+
+    @Test
+    void ticketFixesLevelAndQuestionCount() {
+        String ticket = tickets.issue(USER, "beginner", "en", new long[]{1, 2, 3, 4});
+
+        OfflineSyncResponse response = quizService.syncOffline(USER, List.of(attempt("k1", ticket, 1, 0)));
+
+        assertEquals(1, response.getResults().get(0).getResult().getCorrectAnswers());
+        assertEquals(4, harness.written.get(0).getTotalQuestions());
+        assertEquals(25, harness.written.get(0).getScore());
+        assertEquals("beginner", harness.written.get(0).getLevel());
+    }
+
+    @Test
+    void handPickedOrForeignAttemptsAreRejected() {
+        String own = tickets.issue(USER, "beginner", "en", new long[]{1, 2});
+        String foreign = tickets.issue(8L, "beginner", "en", new long[]{1, 2});
+
+        OfflineSyncResponse response = quizService.syncOffline(USER, List.of(
+                attempt("off-ticket", own, 3, 2),
+                attempt("foreign", foreign, 1, 0),
+                attempt("no-ticket", null, 1, 0),
+                attempt("ok", own, 1, 0),
+                attempt("same-ticket", own, 2, 1)));
+
+        assertEquals(List.of(
+                OfflineSyncResponse.Status.REJECTED,
+                OfflineSyncResponse.Status.REJECTED,
+                OfflineSyncResponse.Status.REJECTED,
+                OfflineSyncResponse.Status.CREATED,
+                OfflineSyncResponse.Status.REJECTED),
+                response.getResults().stream().map(OfflineSyncResponse.Item::getStatus).toList());
+        assertEquals(1, harness.points);
+    }
+
+    /** @param answers question id, selected option, question id, selected option, ... */
+    private static OfflineAttemptRequest attempt(String clientKey, String ticket, long... answers) {
+        OfflineAttemptRequest attempt = new OfflineAttemptRequest();
+        attempt.setClientKey(clientKey);
+        attempt.setTicket(ticket);
+        attempt.setAttemptedAt(LocalDateTime.now().minusMinutes(5));
+        List<AnswerDTO> list = new ArrayList<>();
+        for (int i = 0; i < answers.length; i += 2) {
+            list.add(answer(answers[i], (int) answers[i + 1]));
+        }
+        attempt.setAnswers(list);
+        return attempt;
+    }
+}
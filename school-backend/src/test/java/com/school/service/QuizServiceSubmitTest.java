@@ -0,0 +1,98 @@
+package com.school.service;
+
+import com.school.dto.AnswerDTO;
+import com.school.dto.QuizResultResponse;
+import com.school.dto.QuizSubmitRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+import static com.school.service.QuizHarness.answer;
+import static com.school.service.QuizHarness.question;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tickets in {@link QuizService#submitQuiz}: only the user a ticket was issued to
+ * can submit it, and a ticket is only used up by a submission that is stored.
+ */
+class QuizServiceSubmitTest {
+
+    private static final long USER = 7L;
+
+    private QuizHarness harness;
+
+    @BeforeEach
+    void setUp() {
+        harness = new QuizHarness(question(1, 0), question(2, 1), question(3, 2));
+    }
+
+    @Test
+    void rejectedSubmissionLeavesTheTicketUsable() {
+        String ticket = harness.tickets.issue(USER, "beginner", "en", new long[]{1, 2});
+
+        ResponseStatusException rejected = assertThrows(ResponseStatusException.class,
+                () -> submit(ticket, answer(1, 0), answer(3, 2)));
+        assertEquals(HttpStatus.BAD_REQUEST, rejected.getStatusCode());
+        assertTrue(harness.usedTickets.isEmpty());
+        assertTrue(harness.written.isEmpty());
+        assertTrue(harness.answered.isEmpty());
+
+        QuizResultResponse result = submit(ticket, answer(1, 0), answer(2, 1));
+        assertEquals(2, result.getCorrectAnswers());
+        assertEquals(1, harness.written.size());
+        assertEquals(2, harness.points);
+
+        ResponseStatusException replay = assertThrows(ResponseStatusException.class,
+                () -> submit(ticket, answer(1, 0), answer(2, 1)));
+        assertEquals(HttpStatus.CONFLICT, replay.getStatusCode());
+        assertEquals(1, harness.written.size());
+    }
+
+    @Test
+    void failedWriteLeavesTheTicketUsable() {
+        String ticket = harness.tickets.issue(USER, "beginner", "en", new long[]{1, 2});
+
+        harness.failWrites = true;
+        assertThrows(IllegalStateException.class, () -> submit(ticket, answer(1, 0), answer(2, 1)));
+        assertTrue(harness.usedTickets.isEmpty());
+        assertTrue(harness.answered.isEmpty());
+        assertEquals(0, harness.points);
+
+        harness.failWrites = false;
+        assertEquals(2, submit(ticket, answer(1, 0), answer(2, 1)).getCorrectAnswers());
+        assertEquals(1, harness.written.size());
+    }
+
+    @Test
+    void anonymousTicketCannotBeSubmitted() {
+        String ticket = harness.tickets.issue(null, "beginner", "en", new long[]{1, 2});
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> submit(ticket, answer(1, 0)));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+        assertTrue(harness.usedTickets.isEmpty());
+        assertEquals(0, harness.points);
+    }
+
+    @Test
+    void anotherUsersTicketCannotBeSubmitted() {
+        String ticket = harness.tickets.issue(8L, "beginner", "en", new long[]{1, 2});
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> submit(ticket, answer(1, 0)));
+        assertEquals(HttpStatus.FORBIDDEN, e.getStatusCode());
+        assertTrue(harness.usedTickets.isEmpty());
+    }
+
+    private QuizResultResponse submit(String ticket, AnswerDTO... answers) {
+        QuizSubmitRequest request = new QuizSubmitRequest();
+        request.setTicket(ticket);
+        request.setAnswers(List.of(answers));
+        return harness.quizService.submitQuiz(USER, request);
+    }
+}
@@ -0,0 +1,106 @@
+package com.school.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.AnswerDTO;
+import com.school.dto.QuizResultResponse;
+import com.school.dto.QuizSubmitRequest;
+import com.school.utils.QueryCountAssertions;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pins the statements one {@link QuizService#submitQuiz} runs against a real
+ * (embedded) PostgreSQL, counted by {@code QueryCountingDataSource}. Grading
+ * reads the in-memory answer key, so the count must not grow with the number
+ * of questions:
+ * <ul>
+ *     <li>consume the ticket</li>
+ *     <li>insert the attempt</li>
+ *     <li>create, lock and update the progress row</li>
+ * </ul>
+ * plus, on a user's first submission only, loading their ability estimate and
+ * leaderboard profile.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "quiz.ticket.secret=query-count-test",
+        "quiz.attempts.write-behind.enabled=false"
+})
+class QuizSubmitQueryCountTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final long USER = 1L;
+
+    @Autowired
+    private QuizService quizService;
+
+    @Autowired
+    private QuestionImportService questionImportService;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+    }
+
+    @AfterAll
+    static void stopPostgres() throws IOException {
+        POSTGRES.close();
+    }
+
+    @BeforeEach
+    void importBank() {
+        questionImportService.importQuestions();
+    }
+
+    @Test
+    void submitRunsAFixedNumberOfStatements() throws IOException {
+        QuizSubmitRequest first = drawAndAnswer(10);
+        QueryCountAssertions.assertMaxStatements(7, () -> quizService.submitQuiz(USER, first));
+
+        QuizSubmitRequest second = drawAndAnswer(20);
+        QuizResultResponse result = QueryCountAssertions.assertMaxStatements(5,
+                () -> quizService.submitQuiz(USER, second));
+        assertEquals(20, result.getTotalQuestions());
+    }
+
+    private QuizSubmitRequest drawAndAnswer(int limit) throws IOException {
+        QuizService.QuizDraw draw = quizService.drawQuiz(USER, "beginner", "en", limit);
+        List<AnswerDTO> answers = new ArrayList<>();
+        for (JsonNode question : OBJECT_MAPPER.readTree(draw.json())) {
+            AnswerDTO answer = new AnswerDTO();
+            answer.setQuestionId(question.get("id").asLong());
+            answer.setSelectedOption(0);
+            answers.add(answer);
+        }
+
+        QuizSubmitRequest request = new QuizSubmitRequest();
+        request.setTicket(draw.ticket());
+        request.setAnswers(answers);
+        return request;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.school.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Signing, decoding and single use of tickets in {@link QuizTicketService}.
+ */
+class QuizTicketServiceTest {
+
+    private final Set<Object> used = new HashSet<>();
+
+    // stands in for the unique key on used_quiz_tickets
+    private final JdbcTemplate usedTickets = new JdbcTemplate() {
+        @Override
+        public int update(String sql, Object... args) {
+            return used.add(args[0]) ? 1 : 0;
+        }
+    };
+
+    private final QuizTicketService tickets = new QuizTicketService("test", 60, 120, usedTickets);
+
+    @Test
+    void roundTripsTheDrawnQuestions() {
+        QuizTicket ticket = tickets.verify(tickets.issue(7L, "beginner", "ta", new long[]{30, 10, 20}));
+
+        assertEquals(7L, ticket.getUserId());
+        assertEquals("beginner", ticket.getLevel());
+        assertEquals("ta", ticket.getLanguage());
+        assertArrayEquals(new long[]{10, 20, 30}, ticket.getQuestionIds());
+    }
+
+    @Test
+    void identicalDrawsGetDistinctIds() {
+        long[] ids = {1, 2, 3};
+
+        assertNotEquals(tickets.verify(tickets.issue(7L, "beginner", "en", ids)).getId(),
+                tickets.verify(tickets.issue(7L, "beginner", "en", ids)).getId());
+    }
+
+    @Test
+    void ticketIsConsumedOnce() {
+        String encoded = tickets.issue(7L, "beginner", "en", new long[]{1, 2, 3});
+        QuizTicket first = tickets.verify(encoded);
+        tickets.consume(first, 7L, tickets.deadline(first));
+
+        QuizTicket again = tickets.verify(encoded);
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> tickets.consume(again, 7L, tickets.deadline(again)));
+        assertEquals(HttpStatus.CONFLICT, e.getStatusCode());
+    }
+
+    @Test
+    void tamperedTicketIsRejected() {
+        String encoded = tickets.issue(7L, "beginner", "en", new long[]{1, 2, 3});
+        // a character inside the signed payload, not the tag's trailing bits
+        char c = encoded.charAt(12);
+        String tampered = encoded.substring(0, 12) + (c == 'A' ? 'B' : 'A') + encoded.substring(13);
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> tickets.verify(tampered));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void oversizedQuizIsNotTicketed() {
+        long[] ids = new long[QuizTicketService.MAX_QUESTIONS + 1];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> tickets.issue(7L, "beginner", "en", ids));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        assertEquals(QuizTicketService.MAX_QUESTIONS,
+                tickets.verify(tickets.issue(7L, "beginner", "en", Arrays.copyOf(ids, ids.length - 1))).size());
+    }
+}
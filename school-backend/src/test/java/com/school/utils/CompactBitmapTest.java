@@ -0,0 +1,53 @@
+package com.school.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks {@link CompactBitmap} against a {@link TreeSet} across array/bitmap
+ * container conversions and serialization round trips.
+ */
+class CompactBitmapTest {
+
+    @Test
+    void behavesLikeASet() {
+        Random random = new Random(42);
+        CompactBitmap bitmap = new CompactBitmap();
+        TreeSet<Long> expected = new TreeSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // a dense chunk that crosses the 4096-value array limit, plus sparse ids
+            long value = random.nextBoolean() ? random.nextInt(9_000) : random.nextInt(1_000_000);
+            switch (random.nextInt(10)) {
+                case 0, 1, 2, 3, 4, 5 -> assertEquals(expected.add(value), bitmap.add(value));
+                case 6, 7, 8 -> assertEquals(expected.remove(value), bitmap.remove(value));
+                default -> assertEquals(expected.contains(value), bitmap.contains(value));
+            }
+            if (i % 25_000 == 0) {
+                bitmap = CompactBitmap.fromBytes(bitmap.toBytes());
+            }
+        }
+
+        List<Long> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        assertEquals(new ArrayList<>(expected), values);
+        assertEquals(expected.size(), bitmap.cardinality());
+    }
+
+    @Test
+    void fewHundredSeenQuestionsStayFewHundredBytes() {
+        Random random = new Random(7);
+        CompactBitmap bitmap = new CompactBitmap();
+        for (int i = 0; i < 300; i++) {
+            bitmap.add(1 + random.nextInt(50_000));
+        }
+        assertTrue(bitmap.toBytes().length < 1_000, "serialized size " + bitmap.toBytes().length);
+    }
+}
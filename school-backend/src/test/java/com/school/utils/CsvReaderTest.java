@@ -0,0 +1,62 @@
+package com.school.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Roster uploads as spreadsheets export them: quoting, line endings, a byte
+ * order mark and Tamil names.
+ */
+class CsvReaderTest {
+
+    @Test
+    void splitsPlainRecords() throws IOException {
+        assertEquals(List.of(List.of("name", "grade"), List.of("Anu", "8")), read("name,grade\nAnu,8\n"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndLineBreaks() throws IOException {
+        assertEquals(List.of(
+                        List.of("Ravi", "12, Main Road", "8"),
+                        List.of("Meena", "line one\nline two", "9")),
+                read("Ravi,\"12, Main Road\",8\nMeena,\"line one\nline two\",9\n"));
+    }
+
+    @Test
+    void doubledQuotesAreOneQuote() throws IOException {
+        assertEquals(List.of(List.of("say \"hi\"", ""), List.of("\"", "x")),
+                read("\"say \"\"hi\"\"\",\"\"\n\"\"\"\",x"));
+    }
+
+    @Test
+    void acceptsCrLfAndSkipsBlankLines() throws IOException {
+        assertEquals(List.of(List.of("a", "b"), List.of("c", "d"), List.of("", "e")),
+                read("a,b\r\n\r\nc,d\r\n,e\r\n\n"));
+    }
+
+    @Test
+    void dropsTheByteOrderMarkAndDecodesTamil() throws IOException {
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] body = "பெயர்,வகுப்பு\n\"அருண், குமார்\",எட்டு\n".getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = new byte[bom.length + body.length];
+        System.arraycopy(bom, 0, bytes, 0, bom.length);
+        System.arraycopy(body, 0, bytes, bom.length, body.length);
+
+        List<List<String>> records = CsvReader.read(
+                new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8));
+
+        assertEquals(List.of(List.of("பெயர்", "வகுப்பு"), List.of("அருண், குமார்", "எட்டு")), records);
+    }
+
+    private static List<List<String>> read(String csv) throws IOException {
+        return CsvReader.read(new StringReader(csv));
+    }
+}
@@ -0,0 +1,50 @@
+package com.school.utils;
+
+import java.util.function.Supplier;
+
+/**
+ * Statement-count assertions for tests that run against the application's
+ * DataSource (which counts through {@code QueryCountingDataSource}):
+ *
+ * <pre>{@code
+ * QuizResultResponse result = QueryCountAssertions.assertMaxStatements(3,
+ *         () -> quizService.submitQuiz(userId, request));
+ * }</pre>
+ */
+public final class QueryCountAssertions {
+
+    private QueryCountAssertions() {
+    }
+
+    /** Runs {@code work} and fails if it issued more than {@code max} statements. */
+    public static <T> T assertMaxStatements(int max, Supplier<T> work) {
+        try (QueryCounter.Scope queries = QueryCounter.open()) {
+            T result = work.get();
+            if (queries.statements() > max) {
+                throw new AssertionError("Expected at most " + max + " statements but " + queries.statements()
+                        + " ran: " + queries.statementsByShape());
+            }
+            return result;
+        }
+    }
+
+    public static void assertMaxStatements(int max, Runnable work) {
+        assertMaxStatements(max, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Runs {@code work} and fails if any one statement shape ran more than {@code maxRepeats} times. */
+    public static <T> T assertNoRepeatedStatements(int maxRepeats, Supplier<T> work) {
+        try (QueryCounter.Scope queries = QueryCounter.open()) {
+            T result = work.get();
+            String repeated = queries.mostRepeated();
+            if (queries.repeats(repeated) > maxRepeats) {
+                throw new AssertionError("Possible N+1: statement ran " + queries.repeats(repeated)
+                        + " times: " + repeated);
+            }
+            return result;
+        }
+    }
+}
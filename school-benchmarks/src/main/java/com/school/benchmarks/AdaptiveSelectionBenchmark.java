@@ -0,0 +1,68 @@
+package com.school.benchmarks;
+
+import com.school.repository.QuestionDifficultyRepository;
+import com.school.repository.QuestionBankVersionRepository;
+import com.school.repository.QuestionRepository;
+import com.school.repository.StudentAbilityRepository;
+import com.school.service.AdaptiveDifficultyService;
+import com.school.service.CachedQuestion;
+import com.school.service.QuestionBankCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive question selection and estimate updates with a large bank and a
+ * large population of students who already have estimates in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class AdaptiveSelectionBenchmark {
+
+    @Param({"100"})
+    public int copies;
+
+    @Param({"1000000"})
+    public int students;
+
+    private AdaptiveDifficultyService adaptive;
+    private long questions;
+
+    @Setup
+    public void setUp() {
+        QuestionBankCache cache = new QuestionBankCache(
+                Fixtures.emptyRepository(QuestionRepository.class),
+                Fixtures.emptyRepository(QuestionBankVersionRepository.class),
+                Fixtures.OBJECT_MAPPER);
+        cache.load(Fixtures.questions(copies));
+        questions = cache.size();
+
+        adaptive = new AdaptiveDifficultyService(cache,
+                Fixtures.emptyRepository(StudentAbilityRepository.class),
+                Fixtures.emptyRepository(QuestionDifficultyRepository.class),
+                null, 0.6);
+        adaptive.select(1L, "en", 1); // builds the index
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long user = 1; user <= students; user++) {
+            adaptive.record(user, 1 + random.nextLong(questions), random.nextBoolean());
+        }
+    }
+
+    @Benchmark
+    public List<CachedQuestion> select() {
+        return adaptive.select(1 + ThreadLocalRandom.current().nextLong(students), "en", 10);
+    }
+
+    @Benchmark
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        adaptive.record(1 + random.nextLong(students), 1 + random.nextLong(questions), random.nextBoolean());
+    }
+}
@@ -0,0 +1,60 @@
+package com.school.benchmarks;
+
+import com.school.dto.AuthenticatedUser;
+import com.school.utils.JwtUtil;
+import com.school.utils.VerifiedTokenCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two costs on every login, BCrypt verification and JWT issuing, and the
+ * per-request cost of authenticating a bearer token with and without the
+ * verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthBenchmark {
+
+    private JwtUtil jwtUtil;
+    private BCryptPasswordEncoder passwordEncoder;
+    private String hash;
+    private String token;
+    private VerifiedTokenCache cache;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        passwordEncoder = new BCryptPasswordEncoder();
+        hash = passwordEncoder.encode("student-password");
+        token = jwtUtil.generateToken(1L, "student@example.com", "STUDENT");
+        cache = new VerifiedTokenCache(10_000);
+        cache.put(token, jwtUtil.parseToken(token));
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken(1L, "student@example.com", "STUDENT");
+    }
+
+    @Benchmark
+    public AuthenticatedUser parseToken() {
+        return jwtUtil.parseToken(token);
+    }
+
+    @Benchmark
+    public AuthenticatedUser cachedToken() {
+        return cache.get(token);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches("student-password", hash);
+    }
+}
@@ -0,0 +1,108 @@
+package com.school.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.school.dto.QuestionJsonDTO;
+import com.school.entity.Question;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * In-memory fixtures built from the {@code questions.json} bundled in the
+ * school-backend jar, plus no-op repository stubs, so benchmarks run without a database.
+ */
+final class Fixtures {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final byte[] QUESTIONS_JSON = load();
+
+    private Fixtures() {
+    }
+
+    static byte[] questionsJson() {
+        return QUESTIONS_JSON;
+    }
+
+    /**
+     * The bundled bank repeated {@code copies} times with distinct ids, to see how
+     * the hot paths scale past the ~1k questions that ship with the app.
+     */
+    static List<Question> questions(int copies) {
+        try {
+            List<QuestionJsonDTO> dtos = OBJECT_MAPPER.readValue(QUESTIONS_JSON, new TypeReference<List<QuestionJsonDTO>>() {});
+            List<Question> questions = new ArrayList<>(dtos.size() * copies);
+            long id = 1;
+            for (int c = 0; c < copies; c++) {
+                for (QuestionJsonDTO dto : dtos) {
+                    questions.add(Question.builder()
+                            .id(id++)
+                            .questionEn(dto.getQuestionEn())
+                            .questionTa(dto.getQuestionTa())
+                            .optionsEn(OBJECT_MAPPER.writeValueAsString(dto.getOptionsEn()))
+                            .optionsTa(OBJECT_MAPPER.writeValueAsString(dto.getOptionsTa()))
+                            .correctAnswer(dto.getCorrectAnswer())
+                            .level(dto.getLevel())
+                            .explanationEn(dto.getExplanationEn())
+                            .explanationTa(dto.getExplanationTa())
+                            .relatedImage(dto.getRelatedImage())
+                            .build());
+                }
+            }
+            return questions;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A repository proxy that answers every query with nothing: empty lists,
+     * empty optionals, zero counts, and saves that return their argument.
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T emptyRepository(Class<T> type) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Class<?> returns = method.getReturnType();
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            if (method.getName().startsWith("save") && args != null && args.length == 1) {
+                return args[0];
+            }
+            if (List.class.isAssignableFrom(returns) || Iterable.class.isAssignableFrom(returns)) {
+                return List.of();
+            }
+            if (returns == Optional.class) {
+                return Optional.empty();
+            }
+            if (returns == long.class) {
+                return 0L;
+            }
+            if (returns == boolean.class) {
+                return false;
+            }
+            return null;
+        });
+    }
+
+    private static byte[] load() {
+        try (InputStream is = Fixtures.class.getClassLoader().getResourceAsStream("questions.json")) {
+            if (is == null) {
+                throw new IllegalStateException("questions.json not found; is school-backend on the classpath?");
+            }
+            return is.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.school.benchmarks;
+
+import com.school.dto.AnswerDTO;
+import com.school.dto.QuizResultResponse;
+import com.school.dto.QuizSubmitRequest;
+import com.school.entity.Question;
+import com.school.entity.QuizAttempt;
+import com.school.repository.QuestionBankVersionRepository;
+import com.school.repository.QuestionRepository;
+import com.school.repository.QuestionStatsRepository;
+import com.school.service.AdaptiveDifficultyService;
+import com.school.service.LeaderboardService;
+import com.school.service.QuestionBankCache;
+import com.school.service.QuestionStatsService;
+import com.school.service.QuizAttemptWriter;
+import com.school.service.QuizService;
+import com.school.service.QuizTicket;
+import com.school.service.QuizTicketService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Grading in {@code QuizService.submitQuiz}, with persistence stubbed out so only
+ * ticket verification, the answer-key lookup, scoring and the in-memory answer
+ * statistics are measured; the leaderboard and ability updates are no-ops.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GradingBenchmark {
+
+    private static final long USER = 1L;
+
+    @Param({"10", "50"})
+    public int answers;
+
+    @Param({"1", "100"})
+    public int copies;
+
+    private QuizService quizService;
+    private QuizSubmitRequest request;
+
+    @Setup
+    public void setUp() {
+        QuestionRepository questions = Fixtures.emptyRepository(QuestionRepository.class);
+        List<Question> bank = Fixtures.questions(copies);
+
+        QuestionBankCache cache = new QuestionBankCache(
+                questions, Fixtures.emptyRepository(QuestionBankVersionRepository.class), Fixtures.OBJECT_MAPPER);
+        cache.load(bank);
+
+        QuizAttemptWriter discard = new QuizAttemptWriter(null, null, null, null) {
+            @Override
+            public void write(QuizAttempt attempt) {
+            }
+        };
+        QuizTicketService tickets = new QuizTicketService("benchmark", 60, 120, null) {
+            @Override
+            public void consume(QuizTicket ticket, Long userId, long expiresAt) {
+                // every iteration resubmits the same ticket
+            }
+        };
+        LeaderboardService leaderboard = new LeaderboardService(null, null) {
+            @Override
+            public void record(Long userId, int correct) {
+            }
+        };
+        AdaptiveDifficultyService adaptive = new AdaptiveDifficultyService(null, null, null, null, 0.6) {
+            @Override
+            public void record(Long userId, long questionId, boolean correct) {
+            }
+        };
+        QuestionStatsService stats = new QuestionStatsService(
+                Fixtures.emptyRepository(QuestionStatsRepository.class), cache, null);
+        TransactionTemplate direct = new TransactionTemplate() {
+            @Override
+            public <T> T execute(TransactionCallback<T> action) {
+                return action.doInTransaction(null);
+            }
+        };
+        quizService = new QuizService(questions, cache, discard, leaderboard, tickets, adaptive, stats, null, null,
+                direct);
+
+        List<AnswerDTO> picked = new ArrayList<>(answers);
+        long[] ids = new long[answers];
+        int stride = bank.size() / answers;
+        for (int i = 0; i < answers; i++) {
+            AnswerDTO answer = new AnswerDTO();
+            ids[i] = bank.get(i * stride).getId();
+            answer.setQuestionId(ids[i]);
+            answer.setSelectedOption(i % 4);
+            picked.add(answer);
+        }
+        request = new QuizSubmitRequest();
+        request.setLevel("beginner");
+        request.setAnswers(picked);
+        // benchmark iterations stay well inside the ticket's time limit
+        request.setTicket(tickets.issue(USER, "beginner", "en", ids));
+    }
+
+    @Benchmark
+    public QuizResultResponse submitQuiz() {
+        return quizService.submitQuiz(USER, request);
+    }
+}
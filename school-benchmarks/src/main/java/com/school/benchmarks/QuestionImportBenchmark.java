@@ -0,0 +1,66 @@
+package com.school.benchmarks;
+
+import com.school.dto.QuestionImportReport;
+import com.school.repository.QuestionBankVersionRepository;
+import com.school.repository.QuestionRepository;
+import com.school.service.QuestionBankCache;
+import com.school.service.QuestionImportService;
+import com.school.service.QuestionPackService;
+import com.school.service.QuestionSearchService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming parse, validation, hashing and batch building in
+ * {@link QuestionImportService}. The upsert is discarded, so this measures
+ * the importer's own cost per pack of the bundled {@code questions.json}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuestionImportBenchmark {
+
+    private QuestionImportService importService;
+    private byte[] pack;
+
+    @Setup
+    public void setUp() {
+        QuestionRepository questions = Fixtures.emptyRepository(QuestionRepository.class);
+        JdbcTemplate discard = new JdbcTemplate() {
+            @Override
+            public <T> List<T> query(PreparedStatementCreator psc, RowMapper<T> rowMapper) {
+                return List.of(); // the upsert; nothing reported as written
+            }
+
+            @Override
+            public <T> T queryForObject(String sql, Class<T> requiredType) {
+                return requiredType.cast(1L); // the reserved bank version
+            }
+        };
+        QuestionBankCache cache = new QuestionBankCache(questions,
+                Fixtures.emptyRepository(QuestionBankVersionRepository.class), Fixtures.OBJECT_MAPPER);
+
+        importService = new QuestionImportService(
+                questions,
+                cache,
+                Fixtures.OBJECT_MAPPER,
+                discard,
+                new QuestionPackService(cache),
+                new QuestionSearchService(cache));
+        pack = Fixtures.questionsJson();
+    }
+
+    @Benchmark
+    public QuestionImportReport importPack() {
+        return importService.importStream(new ByteArrayInputStream(pack), "questions.json");
+    }
+}
@@ -0,0 +1,64 @@
+package com.school.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.school.dto.QuizQuestionResponse;
+import com.school.entity.Question;
+import com.school.repository.QuestionBankVersionRepository;
+import com.school.repository.QuestionRepository;
+import com.school.service.QuestionBankCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code /quiz/questions} body: parsing each question's options and
+ * serializing the list per request, as before the cache, against copying the
+ * payloads {@link QuestionBankCache} encodes once. Run with {@code -prof gc}
+ * to compare bytes allocated per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizPayloadBenchmark {
+
+    private static final TypeReference<List<String>> STRING_LIST = new TypeReference<>() {};
+
+    @Param({"10"})
+    public int limit;
+
+    private List<Question> beginner;
+    private QuestionBankCache cache;
+
+    @Setup
+    public void setUp() {
+        List<Question> questions = Fixtures.questions(1);
+        beginner = questions.stream().filter(q -> "beginner".equals(q.getLevel())).toList();
+        cache = new QuestionBankCache(
+                Fixtures.emptyRepository(QuestionRepository.class),
+                Fixtures.emptyRepository(QuestionBankVersionRepository.class),
+                Fixtures.OBJECT_MAPPER);
+        cache.load(questions);
+    }
+
+    @Benchmark
+    public byte[] parsedPerRequest() throws IOException {
+        List<QuizQuestionResponse> out = new ArrayList<>(limit);
+        for (int i = 0; i < limit && i < beginner.size(); i++) {
+            Question q = beginner.get(i);
+            List<String> options = Fixtures.OBJECT_MAPPER.readValue(q.getOptionsTa(), STRING_LIST);
+            out.add(new QuizQuestionResponse(q.getId(), q.getQuestionTa(), options));
+        }
+        return Fixtures.OBJECT_MAPPER.writeValueAsBytes(out);
+    }
+
+    @Benchmark
+    public byte[] preEncoded() {
+        return cache.drawJson("beginner", "ta", limit);
+    }
+}
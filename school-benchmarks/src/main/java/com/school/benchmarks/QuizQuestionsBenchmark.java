@@ -0,0 +1,64 @@
+package com.school.benchmarks;
+
+import com.school.repository.QuestionBankVersionRepository;
+import com.school.repository.QuestionRepository;
+import com.school.repository.QuestionStatsRepository;
+import com.school.repository.SeenQuestionsRepository;
+import com.school.service.QuestionBankCache;
+import com.school.service.QuestionStatsService;
+import com.school.service.QuizService;
+import com.school.service.QuizTicketService;
+import com.school.service.SeenQuestionService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Question selection and JSON rendering behind {@code /quiz/questions}. The plain
+ * cached draw is the floor; the ticketed draw is for one logged-in student, so it
+ * also pays for skipping and recording seen questions and signing the ticket.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QuizQuestionsBenchmark {
+
+    @Param({"1", "100"})
+    public int copies;
+
+    @Param({"en", "ta"})
+    public String language;
+
+    @Param({"10"})
+    public int limit;
+
+    private QuestionBankCache cache;
+    private QuizService quizService;
+
+    @Setup
+    public void setUp() {
+        cache = new QuestionBankCache(
+                Fixtures.emptyRepository(QuestionRepository.class),
+                Fixtures.emptyRepository(QuestionBankVersionRepository.class),
+                Fixtures.OBJECT_MAPPER);
+        cache.load(Fixtures.questions(copies));
+        QuestionStatsService stats = new QuestionStatsService(
+                Fixtures.emptyRepository(QuestionStatsRepository.class), cache, null);
+        SeenQuestionService seen = new SeenQuestionService(
+                cache, Fixtures.emptyRepository(SeenQuestionsRepository.class), null);
+        quizService = new QuizService(null, cache, null, null, new QuizTicketService("benchmark", 60, 120, null), null, stats, seen, null, null);
+    }
+
+    @Benchmark
+    public byte[] cachedJson() {
+        return cache.drawJson("beginner", language, limit);
+    }
+
+    @Benchmark
+    public QuizService.QuizDraw quizQuestionsJson() {
+        return quizService.drawQuiz(1L, "beginner", language, limit);
+    }
+}
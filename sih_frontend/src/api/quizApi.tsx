@@ -1,5 +1,11 @@
 const BASE_URL = "http://localhost:8081";
 
+// The backend identifies the student from the JWT issued at login.
+const authHeaders = (): Record<string, string> => {
+    const token = localStorage.getItem("token");
+    return token ? { Authorization: `Bearer ${token}` } : {};
+};
+
 export interface QuizAnswer {
   questionId: number;
   selectedOption: number;
@@ -8,6 +14,7 @@ export interface QuizAnswer {
 export interface QuizSubmissionPayload {
   level: string;
   answers: QuizAnswer[];
+  ticket: string; // signed list of the drawn questions, returned with them
 }
 
 export interface QuizModule {
@@ -38,12 +45,9 @@ export const fetchQuizQuestions = async (
 
     const headers: Record<string, string> = {
         "Content-Type": "application/json",
+        ...authHeaders(),
     };
 
-    if (userId) {
-        headers["X-USER-ID"] = userId.toString();
-    }
-
     const res = await fetch(
         `${BASE_URL}/quiz/questions?${params.toString()}`,
         {
@@ -55,18 +59,21 @@ export const fetchQuizQuestions = async (
         throw new Error(`Failed to fetch quiz questions: ${res.status}`);
     }
 
-    return res.json();
+    return {
+        questions: await res.json(),
+        ticket: res.headers.get("X-Quiz-Ticket") ?? "",
+    };
 };
 
 export const submitQuiz = async (
     userId: number,
     payload: QuizSubmissionPayload
 ) => {
-    const res = await fetch(`${BASE_URL}/quiz/submit?userId=${userId}`, {
+    const res = await fetch(`${BASE_URL}/quiz/submit`, {
         method: "POST",
         headers: {
             "Content-Type": "application/json",
-            "X-USER-ID": userId.toString(),
+            ...authHeaders(),
         },
         body: JSON.stringify(payload),
     });
@@ -82,11 +89,11 @@ export const completeQuiz = async (
     userId: number,
     payload: QuizSubmissionPayload
 ) => {
-    const res = await fetch(`${BASE_URL}/quiz/complete?userId=${userId}`, {
+    const res = await fetch(`${BASE_URL}/quiz/complete`, {
         method: "POST",
         headers: {
             "Content-Type": "application/json",
-            "X-USER-ID": userId.toString(),
+            ...authHeaders(),
         },
         body: JSON.stringify(payload),
     });
@@ -101,12 +108,9 @@ export const completeQuiz = async (
 export const fetchModuleInfo = async (moduleId: string, userId?: number): Promise<QuizModule> => {
     const headers: Record<string, string> = {
         "Content-Type": "application/json",
+        ...authHeaders(),
     };
 
-    if (userId) {
-        headers["X-USER-ID"] = userId.toString();
-    }
-
     const res = await fetch(
         `${BASE_URL}/modules/${moduleId}`,
         {
@@ -120,3 +124,39 @@ export const fetchModuleInfo = async (moduleId: string, userId?: number): Promis
 
     return res.json();
 };
+
+export interface LeaderboardEntry {
+    rank: number;
+    userId: number;
+    name: string | null;
+    points: number;
+}
+
+export interface LeaderboardResponse {
+    scope: string;
+    totalPlayers: number;
+    entries: LeaderboardEntry[];
+}
+
+export const fetchLeaderboard = async (
+    scope: "global" | "school" | "grade" = "global",
+    top = 6,
+    userId?: number
+): Promise<LeaderboardResponse> => {
+    const params = new URLSearchParams({
+        scope,
+        top: top.toString(),
+    });
+
+    const headers: Record<string, string> = authHeaders();
+
+    const res = await fetch(`${BASE_URL}/leaderboard?${params.toString()}`, {
+        headers,
+    });
+
+    if (!res.ok) {
+        throw new Error(`Failed to fetch leaderboard: ${res.status}`);
+    }
+
+    return res.json();
+};
@@ -16,6 +16,8 @@ import {
   Zap
 } from "lucide-react";
 import { Link } from "react-router-dom";
+import { useEffect, useState } from "react";
+import { fetchLeaderboard } from "@/api/quizApi";
 
 const Dashboard = () => {
   // Get current user data from localStorage
@@ -68,14 +70,21 @@ const Dashboard = () => {
 
   const displayBadges = (dashboardData.badges && dashboardData.badges.length > 0) ? dashboardData.badges : availableBadges;
 
-  const leaderboard = [
-    { rank: 1, name: "Nithish", score: 98, avatar: "PS" },
-    { rank: 2, name: "Pavithraa", score: 95, avatar: "AP" },
-    { rank: 3, name: "Sanjay", score: 93, avatar: "SK" },
-    { rank: 4, name: "Lithika", score: 92, avatar: "RS" },
-    { rank: 5, name: "Tharun", score: 91, avatar: "KR" },
-    { rank: 6, name: "Yuvarajan", score: 90, avatar: "KR" },
-  ];
+  const [leaderboard, setLeaderboard] = useState<{ rank: number; name: string; score: number }[]>([]);
+
+  useEffect(() => {
+    fetchLeaderboard("global", 6, currentUser?.id)
+      .then((res) =>
+        setLeaderboard(
+          res.entries.map((e) => ({
+            rank: e.rank,
+            name: e.name ?? `Student ${e.userId}`,
+            score: e.points,
+          }))
+        )
+      )
+      .catch((error) => console.error("Error fetching leaderboard:", error));
+  }, []);
 
   return (
     <div className="min-h-screen bg-background">
@@ -320,7 +329,7 @@ const Dashboard = () => {
               <CardContent>
                 <div className="space-y-3">
                   {leaderboard.map((user) => (
-                    <div key={user.rank} className="flex items-center justify-between">
+                    <div key={`${user.rank}-${user.name}`} className="flex items-center justify-between">
                       <div className="flex items-center space-x-3">
                         <div className={`w-8 h-8 rounded-full flex items-center justify-center text-xs font-bold ${
                           user.rank === 1 ? 'bg-warning text-white' :
@@ -339,7 +348,7 @@ const Dashboard = () => {
                         </div>
                       </div>
                       <Badge variant={user.rank <= 3 ? "default" : "secondary"}>
-                        {user.score}%
+                        {user.score} pts
                       </Badge>
                     </div>
                   ))}
@@ -134,6 +134,7 @@ const Login = () => {
 
         localStorage.setItem("token", data.token);
         localStorage.setItem("role", data.role);
+        localStorage.setItem("userId", String(data.userId));
         localStorage.setItem("isAuthenticated", "true");
     // Store user data in localStorage (replace with actual auth later)
     // const userData = {
@@ -205,6 +206,7 @@ const Login = () => {
 
       localStorage.setItem("token", data.token);
       localStorage.setItem("role", data.role);
+      localStorage.setItem("userId", String(data.userId));
       localStorage.setItem("isAuthenticated", "true");
 
       toast({
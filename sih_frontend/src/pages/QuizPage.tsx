@@ -5,7 +5,7 @@ import { Button } from "@/components/ui/button";
 import { Progress } from "@/components/ui/progress";
 import { Select, SelectContent, SelectItem, SelectTrigger, SelectValue } from "@/components/ui/select";
 import { useToast } from "@/hooks/use-toast";
-import { Star, Check, X, ChevronLeft, ChevronRight } from "lucide-react";
+import { Star, Check, ChevronLeft, ChevronRight } from "lucide-react";
 import { fetchQuizQuestions, submitQuiz, QuizSubmissionPayload, QuizModule } from "@/api/quizApi";
 
 type Language = "en" | "ta" | "hi";
@@ -14,7 +14,6 @@ interface QuizQuestion {
   id: number;
   question: string;
   options: string[];
-  correctAnswer?: number;
 }
 
 interface BackendQuizQuestion {
@@ -41,11 +40,13 @@ const QuizPage = () => {
   const [submittedAnswers, setSubmittedAnswers] = useState<{questionId: number, selectedOption: number, isCorrect?: boolean}[]>([]);
   const [score, setScore] = useState(0);
   const [loading, setLoading] = useState(true);
+  const [ticket, setTicket] = useState("");
+  const [finishing, setFinishing] = useState(false);
   
   // Constants
   const LEVEL = "beginner";
   const LIMIT = 10;
-  const X_USER_ID = 1; // TODO: Replace with JWT user id
+  const X_USER_ID = Number(localStorage.getItem("userId")); // the backend reads the user from the JWT
 
   // Fetch module and questions from backend
   useEffect(() => {
@@ -66,14 +67,14 @@ const QuizPage = () => {
     
     // Only fetch questions since module endpoint doesn't exist
     fetchQuizQuestions(LEVEL, language, LIMIT, moduleId, X_USER_ID)
-      .then((questionsData: BackendQuizQuestion[]) => {
+      .then(({ questions: questionsData, ticket }: { questions: BackendQuizQuestion[]; ticket: string }) => {
         setModule(fallbackModule);
+        setTicket(ticket);
         // Convert backend format to frontend format
         const convertedQuestions: QuizQuestion[] = questionsData.map(q => ({
           id: q.id,
           question: q.question,
           options: q.options,
-          // correctAnswer will be determined from backend response
         }));
         setQuestions(convertedQuestions);
         setLoading(false);
@@ -137,56 +138,12 @@ const QuizPage = () => {
     setAnswers(newAnswers);
   };
 
-  const handleSubmitAnswer = async () => {
+  // Locks in the current answer. The quiz is graded once, against its ticket, when it is finished:
+  // a ticket can only be submitted once, so answers are not sent one by one.
+  const handleSubmitAnswer = () => {
     if (answers[currentIndex] === undefined || submitted[currentIndex]) return;
-
-    try {
-      const payload: QuizSubmissionPayload = {
-        level: LEVEL,
-        answers: [{
-          questionId: questions[currentIndex].id,
-          selectedOption: answers[currentIndex] + 1, // Convert to 1-based index
-        }],
-      };
-
-      const result = await submitQuiz(X_USER_ID, payload);
-      
-      // Update submitted state
-      setSubmitted(prev => ({ ...prev, [currentIndex]: true }));
-      setShowResult(true);
-      
-      // Update question with correct answer from backend response
-      const updatedQuestions = [...questions];
-      const isCorrect = result.correctAnswers > 0; // If backend says it's correct
-      updatedQuestions[currentIndex] = {
-        ...updatedQuestions[currentIndex],
-        correctAnswer: isCorrect ? answers[currentIndex] + 1 : 
-          // For wrong answers, we don't know the correct answer from backend, so set to -1
-          -1
-      };
-      setQuestions(updatedQuestions);
-      
-      if (isCorrect) {
-        toast({
-          title: "🎉 Congratulations!",
-          description: "Correct answer! Well done!",
-          className: "bg-success/10 border-success text-success-foreground"
-        });
-      } else {
-        toast({
-          title: "❌ Oops, Incorrect!",
-          description: "Don't worry, keep learning!",
-          variant: "destructive",
-        });
-      }
-    } catch (error) {
-      console.error('Error submitting answer:', error);
-      toast({
-        title: "Error submitting answer",
-        description: "Please try again.",
-        variant: "destructive",
-      });
-    }
+    setSubmitted(prev => ({ ...prev, [currentIndex]: true }));
+    setShowResult(true);
   };
 
   const handleNext = () => {
@@ -206,10 +163,13 @@ const QuizPage = () => {
   };
 
   const completeQuiz = async () => {
+    if (finishing || quizCompleted) return;
+    setFinishing(true);
     try {
       // Use the existing submit endpoint instead of complete endpoint
       const payload: QuizSubmissionPayload = {
         level: LEVEL,
+        ticket,
         answers: Object.entries(answers).map(([index, option]) => ({
           questionId: questions[Number(index)].id,
           selectedOption: option + 1, // Convert to 1-based index
@@ -372,9 +332,7 @@ const QuizPage = () => {
               <Star
                 key={star}
                 className={`h-8 w-8 ${
-                  star <= Math.floor((Object.values(answers).filter((answer, index) =>
-                    answer === questions[index]?.correctAnswer
-                  ).length / Math.max(totalQuestions, 1)) * 3)
+                  star <= Math.floor((Object.keys(submitted).length / Math.max(totalQuestions, 1)) * 3)
                     ? 'text-yellow-400 fill-yellow-400'
                     : 'text-gray-300'
                 }`}
@@ -396,21 +354,13 @@ const QuizPage = () => {
                     size="sm"
                     onClick={() => setCurrentIndex(index)}
                     className={`relative ${
-                      submitted[index] 
-                        ? answers[index] + 1 === questions[index].correctAnswer
-                          ? 'bg-green-100 border-green-500 text-green-700'
-                          : 'bg-red-100 border-red-500 text-red-700'
-                        : ''
+                      submitted[index] ? 'bg-accent border-primary' : ''
                     }`}
                   >
                     Q{index + 1}
                     {submitted[index] && (
                       <div className="absolute -top-1 -right-1">
-                        {answers[index] + 1 === questions[index].correctAnswer ? (
-                          <Check className="h-3 w-3 text-green-600" />
-                        ) : (
-                          <X className="h-3 w-3 text-red-600" />
-                        )}
+                        <Check className="h-3 w-3 text-primary" />
                       </div>
                     )}
                   </Button>
@@ -418,7 +368,7 @@ const QuizPage = () => {
               </div>
               <Button
                 onClick={completeQuiz}
-                disabled={Object.keys(submitted).length < totalQuestions}
+                disabled={finishing || Object.keys(submitted).length < totalQuestions}
                 className="w-full mt-4 bg-primary text-primary-foreground"
               >
                 Finish Quiz
@@ -445,9 +395,7 @@ const QuizPage = () => {
                       variant="outline"
                       className={`w-full text-left justify-start p-4 h-auto ${
                         submitted[currentIndex] && answers[currentIndex] === index
-                          ? answers[currentIndex] + 1 === currentQuestion.correctAnswer
-                            ? 'bg-green-100 border-green-500 text-green-700'
-                            : 'bg-red-100 border-red-500 text-red-700'
+                          ? 'bg-accent border-primary'
                           : answers[currentIndex] === index
                           ? 'bg-accent'
                           : 'hover:bg-accent'
@@ -463,26 +411,11 @@ const QuizPage = () => {
 
                 {/* Result Feedback */}
                 {showResult && submitted[currentIndex] && answers[currentIndex] !== undefined && (
-                  <div className={`p-4 rounded-lg border ${
-                    answers[currentIndex] + 1 === currentQuestion.correctAnswer
-                      ? 'bg-green-50 border-green-200'
-                      : 'bg-red-50 border-red-200'
-                  }`}>
+                  <div className="p-4 rounded-lg border bg-muted/50">
                     <div className="flex items-center space-x-2">
-                      {answers[currentIndex] + 1 === currentQuestion.correctAnswer ? (
-                        <Check className="h-5 w-5 text-green-600" />
-                      ) : (
-                        <X className="h-5 w-5 text-red-600" />
-                      )}
-                      <span className={`font-medium ${
-                        answers[currentIndex] + 1 === currentQuestion.correctAnswer
-                          ? 'text-green-700'
-                          : 'text-red-700'
-                      }`}>
-                        {answers[currentIndex] + 1 === currentQuestion.correctAnswer
-                          ? '🎉 Correct! Well done!'
-                          : '❌ Incorrect. Don\'t worry, keep learning!'
-                        }
+                      <Check className="h-5 w-5 text-primary" />
+                      <span className="font-medium">
+                        Answer saved. Your score is shown when you finish the quiz.
                       </span>
                     </div>
                   </div>
@@ -509,7 +442,7 @@ const QuizPage = () => {
 
                   <Button
                     onClick={handleNext}
-                    disabled={!submitted[currentIndex]}
+                    disabled={!submitted[currentIndex] || finishing}
                     className="bg-primary text-primary-foreground"
                   >
                     {currentIndex === totalQuestions - 1 ? 'Finish Quiz' : 'Next'}